@@ -0,0 +1,47 @@
+package sabah.com.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import sabah.com.config.ConfigReader;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Getters are called on every wait and page action, so they must stay allocation-free
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConfigReaderBenchmark {
+
+    @Benchmark
+    public String getBaseUrl() {
+        return ConfigReader.getBaseUrl();
+    }
+
+    @Benchmark
+    public int getExplicitWait() {
+        return ConfigReader.getExplicitWait();
+    }
+
+    @Benchmark
+    public String getProperty() {
+        return ConfigReader.getProperty("browser.profile", "default");
+    }
+
+    @Benchmark
+    public int getDriverPoolSize() {
+        return ConfigReader.getDriverPoolSize();
+    }
+
+    @Benchmark
+    public List<String> getNetworkFilterBlockedUrls() {
+        return ConfigReader.getNetworkFilterBlockedUrls();
+    }
+}
@@ -0,0 +1,92 @@
+package sabah.com.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import sabah.com.config.ConfigReader;
+import sabah.com.pages.SabahHomePage;
+import sabah.com.utils.DriverManager;
+import sabah.com.utils.WaitUtils;
+
+import java.util.concurrent.TimeUnit;
+
+// One real browser against the stand-in page; measures what the framework adds on top of WebDriver
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PageBenchmark {
+    private static final By HEADER = By.cssSelector("header.header");
+
+    @Param({SabahHomePage.HEADER_SECTION, SabahHomePage.TOP_MENU_SECTION,
+            SabahHomePage.MAIN_NAVIGATION_SECTION, SabahHomePage.SOCIAL_MEDIA_SECTION})
+    public String section;
+
+    private StandInSite site;
+    private WebDriver driver;
+    private SabahHomePage page;
+
+    @Setup(Level.Trial)
+    public void startBrowser() throws Exception {
+        site = new StandInSite();
+        // System properties override config.properties, so the pages resolve the stand-in URL
+        System.setProperty("base.url", site.getBaseUrl());
+        ConfigReader.reload();
+
+        page = new SabahHomePage();
+        page.navigateToHomePage();
+        driver = DriverManager.getDriver();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopBrowser() {
+        DriverManager.quitAllDrivers();
+        site.stop();
+        System.clearProperty("base.url");
+        ConfigReader.reload();
+    }
+
+    @Benchmark
+    public boolean isElementDisplayed() {
+        return page.isHeaderDisplayed();
+    }
+
+    @Benchmark
+    public boolean verifySection() {
+        return page.verifySection(section).allDisplayed();
+    }
+
+    @Benchmark
+    public void waitForElementToBeVisible() {
+        WaitUtils.waitForElementToBeVisible(driver, HEADER);
+    }
+
+    @Benchmark
+    public void waitForElementToBeClickable() {
+        WaitUtils.waitForElementToBeClickable(driver, HEADER);
+    }
+
+    @Benchmark
+    public void waitForPageToLoad() {
+        WaitUtils.waitForPageToLoad(driver);
+    }
+
+    @Benchmark
+    public SabahHomePage createPage() {
+        return new SabahHomePage();
+    }
+}
@@ -0,0 +1,45 @@
+package sabah.com.benchmarks;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+
+// Serves the saved homepage from the classpath on a free localhost port
+public class StandInSite {
+    private static final String PAGE_RESOURCE = "sabah-home.html";
+
+    private final HttpServer server;
+
+    public StandInSite() throws IOException {
+        byte[] page;
+        try (InputStream input = StandInSite.class.getClassLoader().getResourceAsStream(PAGE_RESOURCE)) {
+            if (input == null) {
+                throw new IOException(PAGE_RESOURCE + " not found on classpath");
+            }
+            page = input.readAllBytes();
+        }
+
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        // Every path gets the homepage, so link targets resolve without a 404
+        server.createContext("/", exchange -> {
+            exchange.getResponseHeaders().set("Content-Type", "text/html; charset=utf-8");
+            exchange.sendResponseHeaders(200, page.length);
+            try (OutputStream output = exchange.getResponseBody()) {
+                output.write(page);
+            }
+        });
+        server.start();
+    }
+
+    public String getBaseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    public void stop() {
+        server.stop(0);
+    }
+}
@@ -1,54 +1,358 @@
 package sabah.com.config;
 
-import java.io.FileInputStream;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
 import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.List;
 import java.util.Properties;
 
 public class ConfigReader {
-    private static Properties properties;
-    private static final String CONFIG_FILE = "src/main/resources/config.properties";
+    private static final Logger log = LogManager.getLogger(ConfigReader.class);
+
+    private static final String CONFIG_RESOURCE = "config.properties";
+
+    // Replaced atomically on reload; readers always see one consistent snapshot
+    private static volatile ConfigSnapshot snapshot;
 
     static {
-        loadProperties();
+        snapshot = loadSnapshot();
+        if (snapshot.getBoolean("config.watch", false)) {
+            startWatching();
+        }
     }
 
-    private static void loadProperties() {
-        properties = new Properties();
-        try (FileInputStream fis = new FileInputStream(CONFIG_FILE)) {
-            properties.load(fis);
-            System.out.println("Configuration file loaded successfully");
+    // -Dconfig.file=/path/to/config.properties replaces the classpath resource
+    private static ConfigSnapshot loadSnapshot() {
+        Properties fileProperties = new Properties();
+        String configFile = System.getProperty("config.file");
+        try (InputStream input = configFile != null
+                ? Files.newInputStream(Paths.get(configFile))
+                : ConfigReader.class.getClassLoader().getResourceAsStream(CONFIG_RESOURCE)) {
+            if (input == null) {
+                throw new IOException(CONFIG_RESOURCE + " not found on classpath");
+            }
+            fileProperties.load(input);
         } catch (IOException e) {
-            System.err.println("Error loading configuration file: " + e.getMessage());
+            log.error("Error loading configuration file: {}", e.getMessage());
             throw new RuntimeException("Failed to load configuration file", e);
         }
+        ConfigSnapshot loaded = ConfigSnapshot.of(fileProperties, System.getenv(), System.getProperties());
+        log.info("Configuration file loaded successfully");
+        return loaded;
     }
 
-    public static String getProperty(String key) {
-        String value = properties.getProperty(key);
-        if (value == null) {
-            System.out.println("Property not found: " + key);
-            return "";
+    public static ConfigSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    public static void reload() {
+        try {
+            snapshot = loadSnapshot();
+        } catch (RuntimeException e) {
+            // Keep serving the last good snapshot
+            log.warn("Configuration reload failed, keeping previous values: {}", e.getMessage());
+        }
+    }
+
+    private static Path getConfigFilePath() {
+        String configFile = System.getProperty("config.file");
+        if (configFile != null) {
+            return Paths.get(configFile).toAbsolutePath();
+        }
+        URL resource = ConfigReader.class.getClassLoader().getResource(CONFIG_RESOURCE);
+        if (resource == null || !"file".equals(resource.getProtocol())) {
+            return null;
+        }
+        try {
+            return Paths.get(resource.toURI());
+        } catch (URISyntaxException e) {
+            return null;
+        }
+    }
+
+    private static void startWatching() {
+        Path configPath = getConfigFilePath();
+        if (configPath == null) {
+            log.info("Configuration is not a plain file; hot reload disabled");
+            return;
+        }
+        Thread watcher = new Thread(() -> watch(configPath), "config-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+        log.info("Watching configuration file for changes: {}", configPath);
+    }
+
+    private static void watch(Path configPath) {
+        try (WatchService watchService = FileSystems.getDefault().newWatchService()) {
+            configPath.getParent().register(watchService,
+                    StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_CREATE);
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean changed = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    changed |= configPath.getFileName().equals(event.context());
+                }
+                key.reset();
+                if (changed) {
+                    reload();
+                    log.info("Configuration reloaded from {}", configPath);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | ClosedWatchServiceException e) {
+            log.warn("Configuration watcher stopped: {}", e.getMessage());
         }
-        return value;
     }
 
+    public static String getProperty(String key) {
+        return snapshot.getString(key, "");
+    }
+
+    public static String getProperty(String key, String defaultValue) {
+        return snapshot.getString(key, defaultValue);
+    }
+
+    // The configured site; pages use LocalSite.resolveBaseUrl(), which swaps in the record/replay stand-in
     public static String getBaseUrl() {
-        return getProperty("base.url");
+        return snapshot.baseUrl();
     }
 
     public static String getBrowser() {
-        return getProperty("browser");
+        return snapshot.browser();
     }
 
     public static int getImplicitWait() {
-        return Integer.parseInt(getProperty("implicit.wait"));
+        return snapshot.implicitWait();
     }
 
     public static int getExplicitWait() {
-        return Integer.parseInt(getProperty("explicit.wait"));
+        return snapshot.explicitWait();
     }
 
     public static int getPageLoadTimeout() {
-        return Integer.parseInt(getProperty("page.load.timeout"));
+        return snapshot.pageLoadTimeout();
+    }
+
+    public static boolean isEventDrivenWaitEnabled() {
+        return snapshot.eventDrivenWait();
+    }
+
+    public static int getDriverPoolSize() {
+        return snapshot.driverPoolSize();
+    }
+
+    public static int getDriverPoolWarmSize() {
+        return snapshot.driverPoolWarmSize();
+    }
+
+    public static String getBrowserProfile() {
+        return snapshot.getString("browser.profile", "default");
+    }
+
+    public static String getBrowserWindowSize() {
+        return snapshot.getString("browser.window.size", "");
+    }
+
+    public static String getBrowserPageLoadStrategy() {
+        return snapshot.getString("browser.page.load.strategy", "");
+    }
+
+    public static String getDriverCacheDir() {
+        return snapshot.getString("driver.cache.dir", System.getProperty("user.home") + "/.cache/selenium");
+    }
+
+    public static boolean isDriverOffline() {
+        return snapshot.getBoolean("driver.offline", false);
+    }
+
+    public static String getDriverPath(String browser) {
+        return snapshot.getString("driver.path." + browser, "");
+    }
+
+    public static String getBrowserVersion(String browser) {
+        return snapshot.getString("browser.version." + browser, "");
+    }
+
+    public static boolean isNetworkFilterEnabled() {
+        return snapshot.getBoolean("network.filter.enabled", false);
+    }
+
+    public static List<String> getNetworkFilterBlockedUrls() {
+        return snapshot.getList("network.filter.block.urls");
+    }
+
+    public static List<String> getNetworkFilterBlockedTypes() {
+        return snapshot.getList("network.filter.block.types");
+    }
+
+    public static String getSessionReuseMode() {
+        return snapshot.getString("session.reuse", "suite");
+    }
+
+    public static int getSessionReuseMaxTests() {
+        return snapshot.sessionReuseMaxTests();
+    }
+
+    public static int getSessionMaxAgeMinutes() {
+        return snapshot.sessionMaxAgeMinutes();
+    }
+
+    public static int getSessionMaxMemoryMb() {
+        return snapshot.sessionMaxMemoryMb();
+    }
+
+    public static boolean isMetricsEnabled() {
+        return snapshot.metricsEnabled();
+    }
+
+    public static String getMetricsOutputDir() {
+        return snapshot.getString("metrics.output.dir", "target/metrics");
+    }
+
+    public static String getSiteMode() {
+        return snapshot.getString("site.mode", "live");
+    }
+
+    public static String getSiteArchiveFile() {
+        return snapshot.getString("site.archive.file", "site-archive/sabah.archive");
+    }
+
+    public static int getSitePort() {
+        return snapshot.getInt("site.port", 0);
+    }
+
+    public static String getPageEngine() {
+        return snapshot.pageEngine();
+    }
+
+    public static String getStaticSnapshotFile() {
+        return snapshot.getString("static.snapshot.file", "");
+    }
+
+    public static boolean isLocatorValidationEnabled() {
+        return snapshot.locatorValidation();
+    }
+
+    public static boolean isPerformanceCaptureEnabled() {
+        return snapshot.performanceCapture();
+    }
+
+    public static int getLinkCheckConcurrency() {
+        return snapshot.getInt("link.check.concurrency", 32);
+    }
+
+    public static int getLinkCheckPerHostLimit() {
+        return snapshot.linkCheckPerHostLimit();
+    }
+
+    public static int getLinkCheckTimeoutSeconds() {
+        return snapshot.linkCheckTimeoutSeconds();
+    }
+
+    public static String getTestDurationsFile() {
+        return snapshot.getString("test.durations.file", "test-history/durations.properties");
+    }
+
+    public static String getShardOutputDir() {
+        return snapshot.getString("shard.output.dir", "target/shards");
+    }
+
+    public static boolean isAdaptiveWaitEnabled() {
+        return snapshot.adaptiveWait();
+    }
+
+    public static String getWaitHistoryFile() {
+        return snapshot.getString("wait.history.file", "test-history/wait-history.properties");
+    }
+
+    public static double getAdaptiveWaitFactor() {
+        return snapshot.adaptiveWaitFactor();
+    }
+
+    public static int getAdaptiveWaitMinSamples() {
+        return snapshot.adaptiveWaitMinSamples();
+    }
+
+    public static int getAdaptiveWaitFloorMs() {
+        return snapshot.adaptiveWaitFloorMs();
+    }
+
+    public static int getAdaptiveWaitCeilingMs() {
+        return snapshot.adaptiveWaitCeilingMs();
+    }
+
+    public static int getAdaptiveWaitWindowRuns() {
+        return snapshot.adaptiveWaitWindowRuns();
+    }
+
+    public static boolean isFailureArtifactsEnabled() {
+        return snapshot.getBoolean("failure.artifacts.enabled", false);
+    }
+
+    public static String getFailureArtifactsDir() {
+        return snapshot.getString("failure.artifacts.dir", "target/failure-artifacts");
+    }
+
+    public static int getFailureArtifactsThreads() {
+        return snapshot.getInt("failure.artifacts.threads", 2);
+    }
+
+    public static int getFailureArtifactsQueueSize() {
+        return snapshot.getInt("failure.artifacts.queue", 32);
+    }
+
+    public static String getFlakyHistoryFile() {
+        return snapshot.getString("flaky.history.file", "test-history/results.log");
+    }
+
+    public static int getFlakyWindowRuns() {
+        return snapshot.getInt("flaky.window.runs", 20);
+    }
+
+    public static int getFlakyMinRuns() {
+        return snapshot.flakyMinRuns();
+    }
+
+    public static double getFlakyRetryThreshold() {
+        return snapshot.flakyRetryThreshold();
+    }
+
+    public static int getFlakyMaxRetries() {
+        return snapshot.flakyMaxRetries();
+    }
+
+    public static double getFlakyQuarantineThreshold() {
+        return snapshot.flakyQuarantineThreshold();
+    }
+
+    public static String getFlakyQuarantineGroup() {
+        return snapshot.getString("flaky.quarantine.group", "quarantine");
+    }
+
+    public static List<String> getViewportMatrix() {
+        return snapshot.getList("viewport.matrix");
+    }
+
+    public static boolean isViewportReloadEnabled() {
+        return snapshot.viewportReload();
+    }
+
+    // 0 when no budget is set for the metric
+    public static double getPerformanceBudget(String metric) {
+        return snapshot.performanceBudgets().getOrDefault(metric, 0.0);
     }
 }
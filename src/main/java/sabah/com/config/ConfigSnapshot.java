@@ -0,0 +1,306 @@
+package sabah.com.config;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+public final class ConfigSnapshot {
+    // Bare names such as BROWSER are often set for unrelated tools, so only prefixed ones count
+    static final String ENVIRONMENT_PREFIX = "SABAH_";
+
+    // -Dsabah.<key> sets any key, including ones the file does not declare
+    static final String PROPERTY_PREFIX = "sabah.";
+
+    private final Map<String, String> values;
+
+    // Hot-path values, parsed once per snapshot
+    private final String baseUrl;
+    private final String browser;
+    private final int implicitWait;
+    private final int explicitWait;
+    private final int pageLoadTimeout;
+    private final boolean eventDrivenWait;
+    private final boolean metricsEnabled;
+    private final boolean locatorValidation;
+    private final boolean adaptiveWait;
+    private final double adaptiveWaitFactor;
+    private final int adaptiveWaitMinSamples;
+    private final int adaptiveWaitFloorMs;
+    private final int adaptiveWaitCeilingMs;
+    private final int adaptiveWaitWindowRuns;
+    private final int driverPoolSize;
+    private final int driverPoolWarmSize;
+    private final int sessionReuseMaxTests;
+    private final int sessionMaxAgeMinutes;
+    private final int sessionMaxMemoryMb;
+    private final String pageEngine;
+    private final boolean performanceCapture;
+    private final Map<String, Double> performanceBudgets;
+    private final boolean viewportReload;
+    private final int linkCheckPerHostLimit;
+    private final int linkCheckTimeoutSeconds;
+    private final int flakyMinRuns;
+    private final double flakyRetryThreshold;
+    private final double flakyQuarantineThreshold;
+    private final int flakyMaxRetries;
+
+    private ConfigSnapshot(Map<String, String> values) {
+        this.values = Collections.unmodifiableMap(values);
+        this.baseUrl = getRequired("base.url");
+        this.browser = getRequired("browser");
+        this.implicitWait = parseInt("implicit.wait", getRequired("implicit.wait"));
+        this.explicitWait = parseInt("explicit.wait", getRequired("explicit.wait"));
+        this.pageLoadTimeout = parseInt("page.load.timeout", getRequired("page.load.timeout"));
+        this.eventDrivenWait = getBoolean("wait.event.driven", true);
+        this.metricsEnabled = getBoolean("metrics.enabled", false);
+        this.locatorValidation = getBoolean("locator.validation", true);
+        this.adaptiveWait = getBoolean("wait.adaptive", false);
+        this.adaptiveWaitFactor = getDouble("wait.adaptive.factor", 3);
+        this.adaptiveWaitMinSamples = getInt("wait.adaptive.min.samples", 20);
+        this.adaptiveWaitFloorMs = getInt("wait.adaptive.floor.ms", 500);
+        this.adaptiveWaitCeilingMs = getInt("wait.adaptive.ceiling.ms", 15000);
+        this.adaptiveWaitWindowRuns = Math.max(1, getInt("wait.adaptive.window.runs", 20));
+        this.driverPoolSize = poolSize(getInt("driver.pool.size", 0));
+        this.driverPoolWarmSize = getInt("driver.pool.warm", 0);
+        this.sessionReuseMaxTests = getInt("session.reuse.max.tests", 10);
+        this.sessionMaxAgeMinutes = getInt("session.max.age.minutes", 30);
+        this.sessionMaxMemoryMb = getInt("session.max.memory.mb", 512);
+        this.pageEngine = getString("page.engine", "browser");
+        this.performanceCapture = getBoolean("performance.capture", false);
+        this.performanceBudgets = parseBudgets();
+        this.viewportReload = getBoolean("viewport.reload", false);
+        this.linkCheckPerHostLimit = getInt("link.check.per.host", 4);
+        this.linkCheckTimeoutSeconds = getInt("link.check.timeout.seconds", 10);
+        this.flakyMinRuns = getInt("flaky.min.runs", 5);
+        this.flakyRetryThreshold = getDouble("flaky.retry.threshold", 0.1);
+        this.flakyQuarantineThreshold = getDouble("flaky.quarantine.threshold", 0.3);
+        this.flakyMaxRetries = getInt("flaky.max.retries", 2);
+    }
+
+    // Layers, lowest priority first: file, environment (SABAH_BASE_URL for base.url), system properties
+    // (-Dbase.url for keys the file declares, then -Dsabah.<key>)
+    static ConfigSnapshot of(Properties fileProperties, Map<String, String> environment, Properties systemProperties) {
+        Map<String, String> values = new HashMap<>();
+        for (String key : fileProperties.stringPropertyNames()) {
+            values.put(key, fileProperties.getProperty(key).trim());
+        }
+        for (String key : List.copyOf(values.keySet())) {
+            String override = environment.get(toEnvironmentName(key));
+            if (override != null) {
+                values.put(key, override.trim());
+            }
+        }
+        // Unrelated JVM properties (java.*, user.*, ...) stay out of the snapshot
+        Set<String> declared = Set.copyOf(values.keySet());
+        for (String key : declared) {
+            String override = systemProperties.getProperty(key);
+            if (override != null) {
+                values.put(key, override.trim());
+            }
+        }
+        for (String name : systemProperties.stringPropertyNames()) {
+            if (name.startsWith(PROPERTY_PREFIX) && name.length() > PROPERTY_PREFIX.length()) {
+                values.put(name.substring(PROPERTY_PREFIX.length()), systemProperties.getProperty(name).trim());
+            }
+        }
+        return new ConfigSnapshot(values);
+    }
+
+    // 0 means one browser session per available processor
+    private static int poolSize(int configured) {
+        return configured > 0 ? configured : Runtime.getRuntime().availableProcessors();
+    }
+
+    // performance.budget.<metric> -> limit, for every metric that has one
+    private Map<String, Double> parseBudgets() {
+        String prefix = "performance.budget.";
+        Map<String, Double> budgets = new HashMap<>();
+        for (String key : values.keySet()) {
+            if (key.startsWith(prefix) && key.length() > prefix.length()) {
+                budgets.put(key.substring(prefix.length()), getDouble(key, 0));
+            }
+        }
+        return Collections.unmodifiableMap(budgets);
+    }
+
+    static String toEnvironmentName(String key) {
+        return ENVIRONMENT_PREFIX + key.toUpperCase().replace('.', '_').replace('-', '_');
+    }
+
+    private String getRequired(String key) {
+        String value = values.get(key);
+        if (value == null || value.isEmpty()) {
+            throw new IllegalStateException("Missing required configuration key: " + key);
+        }
+        return value;
+    }
+
+    private static int parseInt(String key, String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException("Configuration key " + key + " must be an integer: '" + value + "'", e);
+        }
+    }
+
+    public String getString(String key, String defaultValue) {
+        String value = values.get(key);
+        return value == null || value.isEmpty() ? defaultValue : value;
+    }
+
+    public int getInt(String key, int defaultValue) {
+        String value = values.get(key);
+        return value == null || value.isEmpty() ? defaultValue : parseInt(key, value);
+    }
+
+    public double getDouble(String key, double defaultValue) {
+        String value = values.get(key);
+        if (value == null || value.isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException("Configuration key " + key + " must be a number: '" + value + "'", e);
+        }
+    }
+
+    public boolean getBoolean(String key, boolean defaultValue) {
+        String value = values.get(key);
+        return value == null || value.isEmpty() ? defaultValue : Boolean.parseBoolean(value);
+    }
+
+    public List<String> getList(String key) {
+        List<String> list = new ArrayList<>();
+        for (String value : getString(key, "").split(",")) {
+            if (!value.isBlank()) {
+                list.add(value.trim());
+            }
+        }
+        return Collections.unmodifiableList(list);
+    }
+
+    public boolean contains(String key) {
+        return values.containsKey(key);
+    }
+
+    public String baseUrl() {
+        return baseUrl;
+    }
+
+    public String browser() {
+        return browser;
+    }
+
+    public int implicitWait() {
+        return implicitWait;
+    }
+
+    public int explicitWait() {
+        return explicitWait;
+    }
+
+    public int pageLoadTimeout() {
+        return pageLoadTimeout;
+    }
+
+    public boolean eventDrivenWait() {
+        return eventDrivenWait;
+    }
+
+    public boolean metricsEnabled() {
+        return metricsEnabled;
+    }
+
+    public boolean locatorValidation() {
+        return locatorValidation;
+    }
+
+    public boolean adaptiveWait() {
+        return adaptiveWait;
+    }
+
+    public double adaptiveWaitFactor() {
+        return adaptiveWaitFactor;
+    }
+
+    public int adaptiveWaitMinSamples() {
+        return adaptiveWaitMinSamples;
+    }
+
+    public int adaptiveWaitFloorMs() {
+        return adaptiveWaitFloorMs;
+    }
+
+    public int adaptiveWaitCeilingMs() {
+        return adaptiveWaitCeilingMs;
+    }
+
+    public int adaptiveWaitWindowRuns() {
+        return adaptiveWaitWindowRuns;
+    }
+
+    public int driverPoolSize() {
+        return driverPoolSize;
+    }
+
+    public int driverPoolWarmSize() {
+        return driverPoolWarmSize;
+    }
+
+    public int sessionReuseMaxTests() {
+        return sessionReuseMaxTests;
+    }
+
+    public int sessionMaxAgeMinutes() {
+        return sessionMaxAgeMinutes;
+    }
+
+    public int sessionMaxMemoryMb() {
+        return sessionMaxMemoryMb;
+    }
+
+    public String pageEngine() {
+        return pageEngine;
+    }
+
+    public boolean performanceCapture() {
+        return performanceCapture;
+    }
+
+    public Map<String, Double> performanceBudgets() {
+        return performanceBudgets;
+    }
+
+    public boolean viewportReload() {
+        return viewportReload;
+    }
+
+    public int linkCheckPerHostLimit() {
+        return linkCheckPerHostLimit;
+    }
+
+    public int linkCheckTimeoutSeconds() {
+        return linkCheckTimeoutSeconds;
+    }
+
+    public int flakyMinRuns() {
+        return flakyMinRuns;
+    }
+
+    public double flakyRetryThreshold() {
+        return flakyRetryThreshold;
+    }
+
+    public double flakyQuarantineThreshold() {
+        return flakyQuarantineThreshold;
+    }
+
+    public int flakyMaxRetries() {
+        return flakyMaxRetries;
+    }
+}
@@ -0,0 +1,77 @@
+package sabah.com.listeners;
+
+import org.apache.logging.log4j.ThreadContext;
+import org.testng.IConfigurationListener;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+import sabah.com.config.ConfigReader;
+import sabah.com.pages.BasePage;
+import sabah.com.pages.Engine;
+import sabah.com.pages.PageEngine;
+import sabah.com.utils.DriverManager;
+import sabah.com.utils.FailureArtifacts;
+import sabah.com.utils.LinkChecker;
+import sabah.com.utils.LocalSite;
+import sabah.com.utils.NetworkFilter;
+import sabah.com.utils.PerformanceLog;
+import sabah.com.utils.StepMetrics;
+import sabah.com.utils.ViewportMatrix;
+import sabah.com.utils.WaitHistory;
+
+import java.lang.reflect.Method;
+
+public class DriverSessionListener implements IInvokedMethodListener, IConfigurationListener, ISuiteListener {
+
+    @Override
+    public void beforeInvocation(IInvokedMethod method, ITestResult testResult) {
+        // Runs on the worker thread before @BeforeMethod and @Test, so the leased session gets the right scope
+        DriverManager.setSessionScope(method.getTestMethod().getRealClass().getName());
+        ThreadContext.put("test", method.getTestMethod().getRealClass().getSimpleName()
+                + "." + method.getTestMethod().getMethodName());
+        if (method.isTestMethod()) {
+            BasePage.setEngine(resolveEngine(method.getTestMethod()));
+        }
+    }
+
+    // Runs before @AfterMethod releases the browser, so the page is still the one that failed
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (method.isTestMethod() && testResult.getStatus() == ITestResult.FAILURE) {
+            FailureArtifacts.capture(DriverManager.getLeasedDriver(), ThreadContext.get("test"));
+        }
+    }
+
+    // Pages are built in @BeforeMethod, so the engine must be chosen for the test about to run
+    @Override
+    public void beforeConfiguration(ITestResult testResult, ITestNGMethod testMethod) {
+        if (testMethod != null) {
+            BasePage.setEngine(resolveEngine(testMethod));
+        }
+    }
+
+    private static PageEngine resolveEngine(ITestNGMethod testMethod) {
+        Method method = testMethod.getConstructorOrMethod().getMethod();
+        Engine engine = method != null ? method.getAnnotation(Engine.class) : null;
+        if (engine == null) {
+            Class<?> testClass = testMethod.getRealClass();
+            engine = testClass.getAnnotation(Engine.class);
+        }
+        return engine != null ? engine.value() : PageEngine.fromConfig(ConfigReader.getPageEngine());
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        NetworkFilter.printReport();
+        StepMetrics.export();
+        PerformanceLog.export();
+        ViewportMatrix.export();
+        LinkChecker.export();
+        FailureArtifacts.drain();
+        WaitHistory.save();
+        LocalSite.stop();
+    }
+}
@@ -0,0 +1,143 @@
+package sabah.com.listeners;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.IAnnotationTransformer;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+import org.testng.annotations.ITestAnnotation;
+import org.testng.annotations.Test;
+import sabah.com.config.ConfigReader;
+import sabah.com.utils.FlakinessStore;
+import sabah.com.utils.TestDurations;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Records every attempt in the flakiness store and gives flaky tests the retry analyzer. A test above the
+// quarantine score still runs, but afterInvocation turns its failure into a skip, which is what keeps it
+// from failing the build; the quarantine group it is added to is only a label for reports and filtering.
+public class FlakinessListener implements IAnnotationTransformer, IInvokedMethodListener, ITestListener, ISuiteListener {
+    private static final Logger log = LogManager.getLogger(FlakinessListener.class);
+
+    // Marks a quarantined failure, which onTestSkipped must not record a second time
+    private static final String QUARANTINED = "flakiness.quarantined";
+
+    // The store an attempt is scored against, for the retry analyzer TestNG creates on its own
+    static final String STORE = "flakiness.store";
+
+    // What @Test(retryAnalyzer) holds when the test sets none
+    private static final Object NO_RETRY_ANALYZER = defaultRetryAnalyzer();
+
+    // Attempts so far per test in this run
+    private final Map<String, Integer> attempts = new ConcurrentHashMap<>();
+
+    private final FlakinessStore store;
+
+    public FlakinessListener() {
+        this(FlakinessStore.shared());
+    }
+
+    FlakinessListener(FlakinessStore store) {
+        this.store = store;
+    }
+
+    private static Object defaultRetryAnalyzer() {
+        try {
+            return Test.class.getMethod("retryAnalyzer").getDefaultValue();
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("@Test has no retryAnalyzer attribute", e);
+        }
+    }
+
+    // The raw types are those of IAnnotationTransformer
+    @Override
+    @SuppressWarnings("rawtypes")
+    public void transform(ITestAnnotation annotation, Class testClass, Constructor testConstructor, Method testMethod) {
+        if (testMethod == null) {
+            return;
+        }
+        String test = key(testMethod);
+        if (store.isQuarantined(test)) {
+            String[] groups = Arrays.copyOf(annotation.getGroups(), annotation.getGroups().length + 1);
+            groups[groups.length - 1] = ConfigReader.getFlakyQuarantineGroup();
+            annotation.setGroups(groups);
+            log.warn("Quarantined flaky test {} (flakiness {})", test, String.format("%.2f", store.getScore(test)));
+        } else if (store.isFlaky(test) && (annotation.getRetryAnalyzerClass() == null
+                || annotation.getRetryAnalyzerClass().equals(NO_RETRY_ANALYZER))) {
+            annotation.setRetryAnalyzer(FlakyRetryAnalyzer.class);
+        }
+    }
+
+    @Override
+    public void beforeInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (method.isTestMethod()) {
+            testResult.setAttribute(STORE, store);
+        }
+    }
+
+    // Runs before TestNG registers the outcome, so the failure never reaches the suite result
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (method.isTestMethod() && testResult.getStatus() == ITestResult.FAILURE
+                && store.isQuarantined(key(testResult))) {
+            log.warn("Quarantined test {} failed; reporting it as skipped: {}", key(testResult),
+                    testResult.getThrowable() == null ? "" : testResult.getThrowable().getMessage());
+            store.record(key(testResult), FlakinessStore.Status.FAIL, nextAttempt(testResult),
+                    testResult.getEndMillis() - testResult.getStartMillis(), testResult.getThrowable());
+            testResult.setStatus(ITestResult.SKIP);
+            testResult.setAttribute(QUARANTINED, true);
+        }
+    }
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        record(result, FlakinessStore.Status.PASS);
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        record(result, FlakinessStore.Status.FAIL);
+    }
+
+    @Override
+    public void onTestSkipped(ITestResult result) {
+        if (result.getAttribute(QUARANTINED) != null) {
+            return;
+        }
+        // A retried attempt is reported as skipped, but it failed
+        record(result, result.wasRetried() ? FlakinessStore.Status.FAIL : FlakinessStore.Status.SKIP);
+    }
+
+    private void record(ITestResult result, FlakinessStore.Status status) {
+        store.record(key(result), status, nextAttempt(result),
+                result.getEndMillis() - result.getStartMillis(), result.getThrowable());
+    }
+
+    private int nextAttempt(ITestResult result) {
+        return attempts.merge(key(result), 1, Integer::sum);
+    }
+
+    // By declaring class: the transformer only sees the method, so an inherited test has one history
+    // however many classes run it
+    static String key(ITestResult result) {
+        return key(result.getMethod().getConstructorOrMethod().getMethod());
+    }
+
+    private static String key(Method method) {
+        return TestDurations.key(method.getDeclaringClass().getName(), method.getName());
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        store.save();
+        store.export();
+    }
+}
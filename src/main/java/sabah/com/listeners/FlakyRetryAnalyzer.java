@@ -0,0 +1,29 @@
+package sabah.com.listeners;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.IRetryAnalyzer;
+import org.testng.ITestResult;
+import sabah.com.config.ConfigReader;
+import sabah.com.utils.FlakinessStore;
+
+// Retries only tests whose history shows them flaking; a test that fails every run fails at once
+public class FlakyRetryAnalyzer implements IRetryAnalyzer {
+    private static final Logger log = LogManager.getLogger(FlakyRetryAnalyzer.class);
+
+    private int retries;
+
+    @Override
+    public boolean retry(ITestResult result) {
+        String test = FlakinessListener.key(result);
+        FlakinessStore store = result.getAttribute(FlakinessListener.STORE) instanceof FlakinessStore attached
+                ? attached : FlakinessStore.shared();
+        if (!store.isFlaky(test) || retries >= ConfigReader.getFlakyMaxRetries()) {
+            return false;
+        }
+        retries++;
+        log.info("Retrying flaky test {} (attempt {}, flakiness {})", test, retries + 1,
+                String.format("%.2f", store.getScore(test)));
+        return true;
+    }
+}
@@ -0,0 +1,42 @@
+package sabah.com.listeners;
+
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+import sabah.com.config.ConfigReader;
+import sabah.com.utils.TestDurations;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Records how long each test took, so the shard runner can balance by time instead of test count
+public class TestDurationListener implements ITestListener, ISuiteListener {
+    private final Map<String, Long> durations = new ConcurrentHashMap<>();
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        record(result);
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        record(result);
+    }
+
+    private void record(ITestResult result) {
+        durations.merge(TestDurations.key(result.getTestClass().getName(), result.getMethod().getMethodName()),
+                result.getEndMillis() - result.getStartMillis(), Long::sum);
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        if (durations.isEmpty()) {
+            return;
+        }
+        Path file = Paths.get(ConfigReader.getTestDurationsFile());
+        TestDurations.save(file, TestDurations.merge(TestDurations.load(file), durations));
+    }
+}
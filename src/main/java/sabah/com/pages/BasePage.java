@@ -1,94 +1,373 @@
 package sabah.com.pages;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Elements;
 import org.openqa.selenium.*;
-import org.openqa.selenium.support.PageFactory;
+import sabah.com.config.ConfigReader;
 import sabah.com.utils.DriverManager;
+import sabah.com.utils.LocatorScripts;
+import sabah.com.utils.LocatorValidator;
+import sabah.com.utils.PagePerformance;
+import sabah.com.utils.PerformanceLog;
+import sabah.com.utils.StaticDocuments;
+import sabah.com.utils.StepMetrics;
+import sabah.com.utils.Viewport;
+import sabah.com.utils.ViewportMatrix;
 import sabah.com.utils.WaitUtils;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
 public class BasePage {
+    private static final Logger log = LogManager.getLogger(BasePage.class);
+
+    // Re-resolutions allowed when an element is replaced between lookup and use
+    private static final int MAX_STALE_RETRIES = 2;
+
+    // Engine for pages created on this thread; set per test from @Engine or page.engine
+    private static final ThreadLocal<PageEngine> currentEngine =
+            ThreadLocal.withInitial(() -> PageEngine.fromConfig(ConfigReader.getPageEngine()));
+
+    protected final PageEngine engine;
+
+    // Browser engine only
     protected WebDriver driver;
 
+    // Static engine only: the parsed page after navigateTo
+    protected Document document;
+
+    // Browser engine only: timings of the last navigation
+    private PagePerformance lastPerformance;
+
     public BasePage() {
-        this.driver = DriverManager.getDriver();
-        PageFactory.initElements(driver, this);
+        // Every By constant and @FindBy of the page is parsed once per class; broken ones fail here
+        LocatorValidator.validatePage(getClass());
+        this.engine = currentEngine.get();
+        if (engine == PageEngine.BROWSER) {
+            this.driver = DriverManager.getDriver();
+        }
+    }
+
+    public static void setEngine(PageEngine engine) {
+        currentEngine.set(engine);
+    }
+
+    public PageEngine getEngine() {
+        return engine;
     }
 
     public void navigateTo(String url) {
-        driver.get(url);
-        WaitUtils.waitForPageToLoad(driver);
-        System.out.println("Navigated to: " + url);
+        StepMetrics.time("navigateTo", null, () -> {
+            if (engine == PageEngine.STATIC) {
+                document = StaticDocuments.get(url);
+                return;
+            }
+            driver.get(url);
+            WaitUtils.waitForPageToLoad(driver);
+        });
+        lastPerformance = engine == PageEngine.BROWSER && ConfigReader.isPerformanceCaptureEnabled()
+                ? PerformanceLog.capture(driver) : null;
+        log.info("Navigated to: {}", url);
+    }
+
+    // Timings of the last navigation; measured now if performance.capture is off
+    public PagePerformance getPagePerformance() {
+        requireBrowser("measure");
+        if (lastPerformance == null) {
+            lastPerformance = PerformanceLog.capture(driver);
+        }
+        return lastPerformance;
     }
 
     public String getCurrentUrl() {
-        return driver.getCurrentUrl();
+        return engine == PageEngine.STATIC ? requireDocument().location() : driver.getCurrentUrl();
     }
 
     public String getPageTitle() {
-        return driver.getTitle();
+        return engine == PageEngine.STATIC ? requireDocument().title() : driver.getTitle();
     }
 
     public void clickElement(By locator) {
-        WaitUtils.waitForElementToBeClickable(driver, locator);
-        driver.findElement(locator).click();
-        System.out.println("Clicked element: " + locator);
+        requireBrowser("click");
+        StepMetrics.time("clickElement", locator, () -> withElement(locator, this::awaitClickable, element -> {
+            element.click();
+            return null;
+        }));
+        log.debug("Clicked element: {}", locator);
     }
 
     public void sendKeysToElement(By locator, String text) {
-        WaitUtils.waitForElementToBeVisible(driver, locator);
-        driver.findElement(locator).clear();
-        driver.findElement(locator).sendKeys(text);
-        System.out.println("Sent keys to element: " + locator + " with text: " + text);
+        requireBrowser("type into");
+        StepMetrics.time("sendKeysToElement", locator, () -> withElement(locator, this::awaitVisible, element -> {
+            element.clear();
+            element.sendKeys(text);
+            return null;
+        }));
+        log.debug("Sent keys to element: {} with text: {}", locator, text);
     }
 
     public String getElementText(By locator) {
-        WaitUtils.waitForElementToBeVisible(driver, locator);
-        String text = driver.findElement(locator).getText();
-        System.out.println("Got text from element: " + locator + " - " + text);
+        String text = StepMetrics.time("getElementText", locator, () -> {
+            if (engine == PageEngine.STATIC) {
+                return findStatic(locator).text();
+            }
+            return withElement(locator, this::awaitVisible, WebElement::getText);
+        });
+        log.debug("Got text from element: {} - {}", locator, text);
         return text;
     }
 
+    public String getElementAttribute(By locator, String name) {
+        return StepMetrics.time("getElementAttribute", locator, () -> {
+            if (engine == PageEngine.STATIC) {
+                return StaticDocuments.getAttribute(findStatic(locator), name);
+            }
+            return withElement(locator, this::awaitPresent, element -> element.getAttribute(name));
+        });
+    }
+
     public boolean isElementDisplayed(By locator) {
+        LocatorValidator.requireValid(locator);
+        return StepMetrics.time("isElementDisplayed", locator, () -> {
+            if (engine == PageEngine.STATIC) {
+                return probeStatic(locator).displayed();
+            }
+            // The wait only returns once the element is displayed, so there is nothing left to ask the browser
+            try {
+                WaitUtils.waitForElementToBeVisible(driver, locator);
+                return true;
+            } catch (TimeoutException e) {
+                log.debug("Element not visible within timeout: {}", locator);
+                return false;
+            }
+        });
+    }
+
+    // Checks every locator in one round-trip and waits once for the whole batch
+    public Map<By, Visibility> probeAll(Collection<By> locators) {
+        return probeAll(locators, Set.of());
+    }
+
+    // As above, but locators in noWait are only reported on; the batch does not wait for them to show
+    public Map<By, Visibility> probeAll(Collection<By> locators, Set<By> noWait) {
+        List<By> ordered = new ArrayList<>(new LinkedHashSet<>(locators));
+        if (engine == PageEngine.STATIC) {
+            Map<By, Visibility> results = new LinkedHashMap<>();
+            for (By locator : ordered) {
+                results.put(locator, probeStatic(locator));
+            }
+            return results;
+        }
+
+        List<Map<String, Object>> specs = new ArrayList<>();
+        for (By locator : ordered) {
+            specs.add(noWait.contains(locator) ? LocatorScripts.toNoWaitSpec(locator) : LocatorScripts.toSpec(locator));
+        }
+
+        List<?> entries = WaitUtils.waitForProbeToSettle(driver, specs);
+        Map<By, Visibility> results = new LinkedHashMap<>();
+        for (int i = 0; i < ordered.size(); i++) {
+            Visibility visibility = i < entries.size() ? Visibility.fromScriptResult(entries.get(i)) : Visibility.ABSENT;
+            if (visibility.error() != null) {
+                log.warn("Invalid locator: {} - {}", ordered.get(i), visibility.error());
+            }
+            results.put(ordered.get(i), visibility);
+        }
+        return results;
+    }
+
+    // One probe for the whole catalog section, with a result per entry
+    public SectionResult verifySection(String section) {
+        return verifySection(section, null);
+    }
+
+    // Entries the catalog limits to other viewports are probed without waiting for them
+    private SectionResult verifySection(String section, Viewport viewport) {
+        List<NavigationCatalog.Entry> entries = NavigationCatalog.getSection(section);
+        List<By> locators = new ArrayList<>(entries.size());
+        Set<By> expected = new HashSet<>();
+        Set<String> notExpected = new LinkedHashSet<>();
+        for (NavigationCatalog.Entry entry : entries) {
+            locators.add(entry.locator());
+            if (entry.isExpectedAt(viewport)) {
+                expected.add(entry.locator());
+            } else {
+                notExpected.add(entry.label());
+            }
+        }
+        // A locator shared with an expected entry is still waited for
+        Set<By> noWait = new HashSet<>(locators);
+        noWait.removeAll(expected);
+        Map<By, Visibility> probed = probeAll(locators, noWait);
+
+        Map<String, Visibility> results = new LinkedHashMap<>();
+        for (NavigationCatalog.Entry entry : entries) {
+            Visibility visibility = probed.get(entry.locator());
+            log.info("{} displayed: {}{}", entry.label(), visibility.displayed(),
+                    notExpected.contains(entry.label()) ? " (not expected here)" : "");
+            results.put(entry.label(), visibility);
+        }
+        return new SectionResult(section, Collections.unmodifiableMap(results), Collections.unmodifiableSet(notExpected));
+    }
+
+    // The section checked at every viewport of viewport.matrix in this same browser, keyed by viewport name
+    public Map<String, SectionResult> verifySectionAcrossViewports(String section) {
+        requireBrowser("emulate viewports on");
+        Map<String, SectionResult> results = new LinkedHashMap<>();
         try {
-            WaitUtils.waitForElementToBeVisible(driver, locator);
-            boolean isDisplayed = driver.findElement(locator).isDisplayed();
-            System.out.println("Element is visible: " + locator + " - Displayed: " + isDisplayed);
-            return isDisplayed;
-        } catch (Exception e) {
-            System.out.println("Element not visible within timeout: " + locator);
-            return false;
+            for (Viewport viewport : Viewport.fromConfig()) {
+                ViewportMatrix.emulate(driver, viewport);
+                // Layouts chosen by script at load time only change after a reload
+                if (ConfigReader.isViewportReloadEnabled()) {
+                    refreshPage();
+                }
+                log.info("=== {} at {} ({}x{}) ===", section, viewport.name(), viewport.width(), viewport.height());
+                SectionResult result = verifySection(section, viewport);
+                Map<String, Boolean> displayed = new LinkedHashMap<>();
+                result.entries().forEach((label, visibility) -> displayed.put(label, visibility.displayed()));
+                ViewportMatrix.record(viewport, section, displayed, result.allDisplayed());
+                results.put(viewport.name(), result);
+            }
+        } finally {
+            ViewportMatrix.clear(driver);
         }
+        return results;
     }
 
     public boolean isElementPresent(By locator) {
+        LocatorValidator.requireValid(locator);
+        if (engine == PageEngine.STATIC) {
+            return probeStatic(locator).present();
+        }
         try {
             WaitUtils.waitForElementToBePresent(driver, locator);
             return true;
-        } catch (Exception e) {
+        } catch (TimeoutException e) {
             return false;
         }
     }
 
     public void scrollToElement(By locator) {
-        WebElement element = driver.findElement(locator);
-        ((JavascriptExecutor) driver).executeScript("arguments[0].scrollIntoView(true);", element);
-        System.out.println("Scrolled to element: " + locator);
+        requireBrowser("scroll to");
+        StepMetrics.time("scrollToElement", locator, () -> withElement(locator, this::awaitPresent, element ->
+                ((JavascriptExecutor) driver).executeScript("arguments[0].scrollIntoView(true);", element)));
+        log.debug("Scrolled to element: {}", locator);
     }
 
     public void refreshPage() {
+        requireBrowser("refresh");
         driver.navigate().refresh();
         WaitUtils.waitForPageToLoad(driver);
-        System.out.println("Page refreshed");
+        log.info("Page refreshed");
     }
 
     public void goBack() {
+        requireBrowser("navigate back from");
         driver.navigate().back();
         WaitUtils.waitForPageToLoad(driver);
-        System.out.println("Navigated back");
+        log.info("Navigated back");
     }
 
     public void goForward() {
+        requireBrowser("navigate forward from");
         driver.navigate().forward();
         WaitUtils.waitForPageToLoad(driver);
-        System.out.println("Navigated forward");
+        log.info("Navigated forward");
+    }
+
+    // Every http(s) link on the page, fragments stripped, in document order
+    @SuppressWarnings("unchecked")
+    public List<String> collectLinks() {
+        List<String> hrefs = new ArrayList<>();
+        if (engine == PageEngine.STATIC) {
+            for (Element link : requireDocument().select("a[href]")) {
+                hrefs.add(link.absUrl("href"));
+            }
+        } else {
+            hrefs = (List<String>) ((JavascriptExecutor) driver).executeScript(
+                    "return Array.from(document.links, function (a) { return a.href; });");
+        }
+
+        LinkedHashSet<String> links = new LinkedHashSet<>();
+        for (String href : hrefs) {
+            if (href != null && (href.startsWith("http://") || href.startsWith("https://"))) {
+                int hash = href.indexOf('#');
+                links.add(hash < 0 ? href : href.substring(0, hash));
+            }
+        }
+        return new ArrayList<>(links);
+    }
+
+    // One wait resolves the element and the action runs on it directly; if the DOM replaced it
+    // in between, it is resolved again rather than failing the step
+    private <T> T withElement(By locator, Function<By, WebElement> resolve, Function<WebElement, T> action) {
+        for (int attempt = 0; ; attempt++) {
+            WebElement element = resolve.apply(locator);
+            try {
+                return action.apply(element);
+            } catch (StaleElementReferenceException e) {
+                if (attempt >= MAX_STALE_RETRIES) {
+                    throw e;
+                }
+                log.debug("Element went stale, resolving again: {}", locator);
+            }
+        }
+    }
+
+    private WebElement awaitVisible(By locator) {
+        return WaitUtils.waitForElementToBeVisible(driver, locator);
+    }
+
+    private WebElement awaitClickable(By locator) {
+        return WaitUtils.waitForElementToBeClickable(driver, locator);
+    }
+
+    private WebElement awaitPresent(By locator) {
+        return WaitUtils.waitForElementToBePresent(driver, locator);
+    }
+
+    // No bounds without layout; invalid locators are reported like the browser probe does
+    private Visibility probeStatic(By locator) {
+        try {
+            Elements matches = StaticDocuments.select(requireDocument(), locator);
+            boolean displayed = matches.stream().anyMatch(StaticDocuments::isDisplayed);
+            return new Visibility(!matches.isEmpty(), displayed, null, null);
+        } catch (InvalidSelectorException e) {
+            log.warn("Invalid locator: {} - {}", locator, e.getRawMessage());
+            return new Visibility(false, false, null, e.getRawMessage());
+        }
+    }
+
+    private Element findStatic(By locator) {
+        Element element = StaticDocuments.select(requireDocument(), locator).first();
+        if (element == null) {
+            throw new NoSuchElementException("No element in static page matches " + locator);
+        }
+        return element;
+    }
+
+    private Document requireDocument() {
+        if (document == null) {
+            throw new IllegalStateException("Static page has not been loaded; call navigateTo first");
+        }
+        return document;
+    }
+
+    private void requireBrowser(String action) {
+        if (engine != PageEngine.BROWSER) {
+            throw new UnsupportedOperationException("Cannot " + action + " a page on the " + engine
+                    + " engine; run this test with @Engine(PageEngine.BROWSER)");
+        }
     }
 }
@@ -0,0 +1,13 @@
+package sabah.com.pages;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Picks the page engine for a test method or every test in a class; overrides page.engine
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface Engine {
+    PageEngine value();
+}
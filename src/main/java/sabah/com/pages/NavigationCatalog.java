@@ -0,0 +1,115 @@
+package sabah.com.pages;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.By;
+import org.openqa.selenium.InvalidSelectorException;
+import sabah.com.utils.LocatorValidator;
+import sabah.com.utils.Viewport;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+// Labelled locators grouped into sections, read once per JVM from navigation-catalog.txt
+public class NavigationCatalog {
+    private static final Logger log = LogManager.getLogger(NavigationCatalog.class);
+
+    private static final String CATALOG_RESOURCE = "navigation-catalog.txt";
+
+    private static final String XPATH_PREFIX = "xpath:";
+
+    // A label ending in [name, ...] is only expected at those viewport.matrix viewports
+    private static final Pattern VIEWPORT_SUFFIX = Pattern.compile("^(.*?)\\s*\\[([^\\]]*)]$");
+
+    // viewports: where the element is expected to be displayed; empty means everywhere
+    public record Entry(String section, String label, By locator, Set<String> viewports) {
+
+        public boolean isExpectedAt(Viewport viewport) {
+            return viewport == null || viewports.isEmpty() || viewports.contains(viewport.name());
+        }
+    }
+
+    // Section name -> entries in file order; nothing here changes after loading
+    private static final Map<String, List<Entry>> sections = load();
+
+    public static List<Entry> getSection(String section) {
+        List<Entry> entries = sections.get(section);
+        if (entries == null) {
+            throw new IllegalArgumentException("Unknown navigation section: " + section + " (known: " + sections.keySet() + ")");
+        }
+        return entries;
+    }
+
+    public static Set<String> getSections() {
+        return sections.keySet();
+    }
+
+    private static Map<String, List<Entry>> load() {
+        try (InputStream input = NavigationCatalog.class.getClassLoader().getResourceAsStream(CATALOG_RESOURCE)) {
+            if (input == null) {
+                throw new IOException(CATALOG_RESOURCE + " not found on classpath");
+            }
+            BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+            Map<String, List<Entry>> loaded = parse(reader.lines().toList());
+            log.info("Navigation catalog loaded: {} section(s), {} entries", loaded.size(),
+                    loaded.values().stream().mapToInt(List::size).sum());
+            return loaded;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to load navigation catalog", e);
+        }
+    }
+
+    static Map<String, List<Entry>> parse(List<String> lines) {
+        Map<String, List<Entry>> parsed = new LinkedHashMap<>();
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            // The locator is last, so it may itself contain '|'
+            String[] fields = line.split("\\|", 3);
+            if (fields.length < 3 || fields[0].isBlank() || fields[1].isBlank() || fields[2].isBlank()) {
+                throw new IllegalStateException("Line " + (i + 1) + " of " + CATALOG_RESOURCE
+                        + " is not 'section | label | locator': " + line);
+            }
+            String locatorText = fields[2].trim();
+            By locator = locatorText.startsWith(XPATH_PREFIX)
+                    ? By.xpath(locatorText.substring(XPATH_PREFIX.length()).trim())
+                    : By.cssSelector(locatorText);
+            try {
+                LocatorValidator.requireValid(locator);
+            } catch (InvalidSelectorException e) {
+                throw new IllegalStateException("Line " + (i + 1) + " of " + CATALOG_RESOURCE + ": " + e.getRawMessage(), e);
+            }
+            String section = fields[0].trim();
+            String label = fields[1].trim();
+            Set<String> viewports = Set.of();
+            Matcher suffix = VIEWPORT_SUFFIX.matcher(label);
+            if (suffix.matches()) {
+                label = suffix.group(1);
+                viewports = Arrays.stream(suffix.group(2).split(",")).map(String::trim).filter(name -> !name.isEmpty())
+                        .collect(Collectors.toUnmodifiableSet());
+                if (label.isEmpty() || viewports.isEmpty()) {
+                    throw new IllegalStateException("Line " + (i + 1) + " of " + CATALOG_RESOURCE
+                            + " has an empty label or viewport list: " + line);
+                }
+            }
+            parsed.computeIfAbsent(section, s -> new ArrayList<>()).add(new Entry(section, label, locator, viewports));
+        }
+        parsed.replaceAll((section, entries) -> List.copyOf(entries));
+        return Collections.unmodifiableMap(parsed);
+    }
+}
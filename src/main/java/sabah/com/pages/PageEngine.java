@@ -0,0 +1,25 @@
+package sabah.com.pages;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+public enum PageEngine {
+    // Real browser session from the DriverManager pool
+    BROWSER,
+    // HTML fetched once and parsed in-process; structural checks only, no rendering or interaction
+    STATIC;
+
+    private static final Logger log = LogManager.getLogger(PageEngine.class);
+
+    public static PageEngine fromConfig(String value) {
+        if (value == null || value.isBlank()) {
+            return BROWSER;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            log.warn("Unsupported page engine: {}. Using browser as default.", value);
+            return BROWSER;
+        }
+    }
+}
@@ -1,213 +1,53 @@
 package sabah.com.pages;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.openqa.selenium.By;
-import org.openqa.selenium.WebElement;
-import org.openqa.selenium.support.FindBy;
-import org.openqa.selenium.support.PageFactory;
-import sabah.com.config.ConfigReader;
+import sabah.com.utils.LinkChecker;
+import sabah.com.utils.LocalSite;
 
-public class SabahHomePage extends BasePage {
-
-    // Header Elements
-    @FindBy(css = "header.header")
-    private WebElement headerElement;
-
-    @FindBy(css = "div.logo a[title='Son Dakika Haberleri']")
-    private WebElement logoLink;
-
-    @FindBy(css = "div.logo img[alt='Son Dakika Haberleri']")
-    private WebElement logoImage;
-
-    // Top Menu Elements (nav.menuTop)
-    @FindBy(css = "nav.menuTop")
-    private WebElement topMenu;
-
-    @FindBy(css = "nav.menuTop a[href='/spor-haberleri']")
-    private WebElement sabahSporLink;
-
-    @FindBy(css = "nav.menuTop a[href='/magazin-haberleri']")
-    private WebElement sabahGunaydinLink;
-
-    @FindBy(css = "nav.menuTop a[href='/finans']")
-    private WebElement aParaLink;
-
-    @FindBy(css = "nav.menuTop a[href='/roza']")
-    private WebElement rozaLink;
-
-    @FindBy(css = "nav.menuTop a[href='/memurlar']")
-    private WebElement memurlarLink;
-
-    @FindBy(css = "nav.menuTop a[href='/kobi']")
-    private WebElement halkbankKobiLink;
-
-    @FindBy(css = "nav.menuTop a[href='/video']")
-    private WebElement videoLink;
-
-    @FindBy(css = "nav.menuTop a[href='javascript:;']")
-    private WebElement canliYayinLink;
-
-    // Main Navigation Elements (nav.menu.navobile-desktop-only)
-    @FindBy(css = "nav.menu.navobile-desktop-only")
-    private WebElement mainNavigation;
-
-    @FindBy(css = "nav.menu a[href='/son-dakika-haberleri']")
-    private WebElement sonDakikaLink;
-
-    @FindBy(css = "nav.menu a[href='/gundem']")
-    private WebElement gundemLink;
-
-    @FindBy(css = "nav.menu a[href='/ekonomi']")
-    private WebElement ekonomiLink;
-
-    @FindBy(css = "nav.menu a[href='/yasam']")
-    private WebElement yasamLink;
-
-    @FindBy(css = "nav.menu a[href='/egitim']")
-    private WebElement egitimLink;
+import java.util.List;
 
-    @FindBy(css = "nav.menu a[href='/dunya']")
-    private WebElement dunyaLink;
-
-    @FindBy(css = "nav.menu a[href='/resmi-ilan']")
-    private WebElement resmiIlanlarLink;
-
-    @FindBy(css = "nav.menu a[href='/yazarlar']")
-    private WebElement yazarlarLink;
-
-    // Social Media Elements - Header specific
-    @FindBy(css = ".topFrame a.face[href*='facebook.com/sabah']:first")
-    private WebElement facebookLink;
-
-    @FindBy(css = ".topFrame a.twt[href*='x.com/sabah']:first")
-    private WebElement twitterLink;
-
-    @FindBy(css = ".topFrame a.inst[href*='instagram.com/sabah']:first")
-    private WebElement instagramLink;
+public class SabahHomePage extends BasePage {
+    private static final Logger log = LogManager.getLogger(SabahHomePage.class);
 
-    @FindBy(css = ".topFrame a.ytb[href*='youtube.com/@sabah']:first")
-    private WebElement youtubeLink;
+    // Sections of navigation-catalog.txt
+    public static final String HEADER_SECTION = "header";
+    public static final String TOP_MENU_SECTION = "top-menu";
+    public static final String MAIN_NAVIGATION_SECTION = "main-navigation";
+    public static final String SOCIAL_MEDIA_SECTION = "social-media";
 
-    public SabahHomePage() {
-        super();
-        PageFactory.initElements(driver, this);
-    }
+    // Header Locators
+    private static final By HEADER = By.cssSelector("header.header");
+    private static final By LOGO_LINK = By.cssSelector("div.logo a[title='Son Dakika Haberleri']");
+    private static final By LOGO_IMAGE = By.cssSelector("div.logo img[alt='Son Dakika Haberleri']");
 
     public void navigateToHomePage() {
-        navigateTo(ConfigReader.getBaseUrl());
+        navigateTo(LocalSite.resolveBaseUrl());
     }
 
     // Header Verification Methods
     public boolean isHeaderDisplayed() {
-        return isElementDisplayed(By.cssSelector("header.header"));
+        return isElementDisplayed(HEADER);
     }
 
     public boolean isLogoDisplayed() {
-        return isElementDisplayed(By.cssSelector("div.logo img[alt='Son Dakika Haberleri']"));
+        return isElementDisplayed(LOGO_IMAGE);
     }
 
     public String getLogoAltText() {
-        return getElementText(By.cssSelector("div.logo img[alt='Son Dakika Haberleri']"));
+        return getElementText(LOGO_IMAGE);
     }
 
     public String getLogoHref() {
-        return driver.findElement(By.cssSelector("div.logo a[title='Son Dakika Haberleri']")).getAttribute("href");
-    }
-
-    // Top Menu Verification Methods
-    public boolean isTopMenuDisplayed() {
-        return isElementDisplayed(By.cssSelector("nav.menuTop"));
-    }
-
-    public boolean isSabahSporLinkDisplayed() {
-        return isElementDisplayed(By.cssSelector("nav.menuTop a[href='/spor-haberleri']"));
-    }
-
-    public boolean isSabahGunaydinLinkDisplayed() {
-        return isElementDisplayed(By.cssSelector("nav.menuTop a[href='/magazin-haberleri']"));
-    }
-
-    public boolean isAParaLinkDisplayed() {
-        return isElementDisplayed(By.cssSelector("nav.menuTop a[href='/finans']"));
-    }
-
-    public boolean isRozaLinkDisplayed() {
-        return isElementDisplayed(By.cssSelector("nav.menuTop a[href='/roza']"));
-    }
-
-    public boolean isMemurlarLinkDisplayed() {
-        return isElementDisplayed(By.cssSelector("nav.menuTop a[href='/memurlar']"));
-    }
-
-    public boolean isHalkbankKobiLinkDisplayed() {
-        return isElementDisplayed(By.cssSelector("nav.menuTop a[href='/kobi']"));
-    }
-
-    public boolean isVideoLinkDisplayed() {
-        return isElementDisplayed(By.cssSelector("nav.menuTop a[href='/video']"));
-    }
-
-    public boolean isCanliYayinLinkDisplayed() {
-        return isElementDisplayed(By.cssSelector("nav.menuTop a[href='javascript:;']"));
-    }
-
-    // Main Navigation Verification Methods
-    public boolean isMainNavigationDisplayed() {
-        return isElementDisplayed(By.cssSelector("nav.menu.navobile-desktop-only"));
-    }
-
-    public boolean isSonDakikaLinkDisplayed() {
-        return isElementDisplayed(By.cssSelector("nav.menu a[href='/son-dakika-haberleri']"));
-    }
-
-    public boolean isGundemLinkDisplayed() {
-        return isElementDisplayed(By.cssSelector("nav.menu a[href='/gundem']"));
-    }
-
-    public boolean isEkonomiLinkDisplayed() {
-        return isElementDisplayed(By.cssSelector("nav.menu a[href='/ekonomi']"));
-    }
-
-    public boolean isYasamLinkDisplayed() {
-        return isElementDisplayed(By.cssSelector("nav.menu a[href='/yasam']"));
-    }
-
-    public boolean isEgitimLinkDisplayed() {
-        return isElementDisplayed(By.cssSelector("nav.menu a[href='/egitim']"));
-    }
-
-    public boolean isDunyaLinkDisplayed() {
-        return isElementDisplayed(By.cssSelector("nav.menu a[href='/dunya']"));
-    }
-
-    public boolean isResmiIlanlarLinkDisplayed() {
-        return isElementDisplayed(By.cssSelector("nav.menu a[href='/resmi-ilan']"));
-    }
-
-    public boolean isYazarlarLinkDisplayed() {
-        return isElementDisplayed(By.cssSelector("nav.menu a[href='/yazarlar']"));
-    }
-
-    // Social Media Verification Methods
-    public boolean isFacebookLinkDisplayed() {
-        return isElementDisplayed(By.cssSelector(".topFrame a.face[href*='facebook.com/sabah']"));
-    }
-
-    public boolean isTwitterLinkDisplayed() {
-        return isElementDisplayed(By.cssSelector(".topFrame a.twt[href*='x.com/sabah']"));
-    }
-
-    public boolean isInstagramLinkDisplayed() {
-        return isElementDisplayed(By.cssSelector(".topFrame a.inst[href*='instagram.com/sabah']:first"));
-    }
-
-    public boolean isYoutubeLinkDisplayed() {
-        return isElementDisplayed(By.cssSelector(".topFrame a.ytb[href*='youtube.com/@sabah']:first"));
+        return getElementAttribute(LOGO_LINK, "href");
     }
 
     // URL and Title Verification
     public boolean verifyCurrentUrl() {
         String currentUrl = getCurrentUrl();
-        return currentUrl.equals(ConfigReader.getBaseUrl()) || currentUrl.equals(ConfigReader.getBaseUrl() + "/");
+        String baseUrl = LocalSite.resolveBaseUrl();
+        return currentUrl.equals(baseUrl) || currentUrl.equals(baseUrl + "/");
     }
 
     public boolean verifyPageTitle() {
@@ -215,118 +55,19 @@ public class SabahHomePage extends BasePage {
         return title.contains("Sabah") || title.contains("sabah.com.tr");
     }
 
-    // Comprehensive Header Verification
-    public boolean verifyHeaderElements() {
-        System.out.println("=== Header Verification Started ===");
-        
-        boolean headerDisplayed = isHeaderDisplayed();
-        System.out.println("Header displayed: " + headerDisplayed);
-        
-        boolean logoDisplayed = isLogoDisplayed();
-        System.out.println("Logo displayed: " + logoDisplayed);
-        
-        boolean topMenuDisplayed = isTopMenuDisplayed();
-        System.out.println("Top menu displayed: " + topMenuDisplayed);
-        
-        boolean mainNavDisplayed = isMainNavigationDisplayed();
-        System.out.println("Main navigation displayed: " + mainNavDisplayed);
-        
-        System.out.println("=== Header Verification Completed ===");
-        
-        // Return true if all required elements are displayed
-        return headerDisplayed && logoDisplayed && topMenuDisplayed && mainNavDisplayed;
-    }
+    // Checks every link on the page, menus and article links alike, and logs the broken ones
+    public List<LinkChecker.LinkResult> checkLinkHealth() {
+        log.info("=== Link Health Check Started ===");
 
-    // Comprehensive Top Menu Verification
-    public boolean verifyTopMenuElements() {
-        System.out.println("=== Top Menu Verification Started ===");
-        
-        boolean sabahSporDisplayed = isSabahSporLinkDisplayed();
-        System.out.println("Sabah Spor displayed: " + sabahSporDisplayed);
-        
-        boolean sabahGunaydinDisplayed = isSabahGunaydinLinkDisplayed();
-        System.out.println("Sabah Günaydın displayed: " + sabahGunaydinDisplayed);
-        
-        boolean aParaDisplayed = isAParaLinkDisplayed();
-        System.out.println("A Para displayed: " + aParaDisplayed);
-        
-        boolean rozaDisplayed = isRozaLinkDisplayed();
-        System.out.println("Roza displayed: " + rozaDisplayed);
-        
-        boolean memurlarDisplayed = isMemurlarLinkDisplayed();
-        System.out.println("Memurlar displayed: " + memurlarDisplayed);
-        
-        boolean halkbankKobiDisplayed = isHalkbankKobiLinkDisplayed();
-        System.out.println("Halkbank KOBİ displayed: " + halkbankKobiDisplayed);
-        
-        boolean videoDisplayed = isVideoLinkDisplayed();
-        System.out.println("Video displayed: " + videoDisplayed);
-        
-        boolean canliYayinDisplayed = isCanliYayinLinkDisplayed();
-        System.out.println("Canlı Yayın displayed: " + canliYayinDisplayed);
-        
-        System.out.println("=== Top Menu Verification Completed ===");
-        
-        return sabahSporDisplayed && sabahGunaydinDisplayed && aParaDisplayed && 
-               rozaDisplayed && memurlarDisplayed && halkbankKobiDisplayed && 
-               videoDisplayed && canliYayinDisplayed;
-    }
-
-    // Comprehensive Main Navigation Verification
-    public boolean verifyMainNavigationElements() {
-        System.out.println("=== Main Navigation Verification Started ===");
-        
-
-        
-        boolean sonDakikaDisplayed = isSonDakikaLinkDisplayed();
-        System.out.println("Son Dakika displayed: " + sonDakikaDisplayed);
-        
-        boolean gundemDisplayed = isGundemLinkDisplayed();
-        System.out.println("Gündem displayed: " + gundemDisplayed);
-        
-        boolean ekonomiDisplayed = isEkonomiLinkDisplayed();
-        System.out.println("Ekonomi displayed: " + ekonomiDisplayed);
-        
-        boolean yasamDisplayed = isYasamLinkDisplayed();
-        System.out.println("Yaşam displayed: " + yasamDisplayed);
-        
-        boolean egitimDisplayed = isEgitimLinkDisplayed();
-        System.out.println("Eğitim displayed: " + egitimDisplayed);
-        
-        boolean dunyaDisplayed = isDunyaLinkDisplayed();
-        System.out.println("Dünya displayed: " + dunyaDisplayed);
-        
-        boolean resmiIlanlarDisplayed = isResmiIlanlarLinkDisplayed();
-        System.out.println("Resmi İlanlar displayed: " + resmiIlanlarDisplayed);
-        
-        boolean yazarlarDisplayed = isYazarlarLinkDisplayed();
-        System.out.println("Yazarlar displayed: " + yazarlarDisplayed);
-        
-        System.out.println("=== Main Navigation Verification Completed ===");
-        
-        return sonDakikaDisplayed && gundemDisplayed && 
-               ekonomiDisplayed && yasamDisplayed && egitimDisplayed && 
-               dunyaDisplayed && resmiIlanlarDisplayed && yazarlarDisplayed;
-    }
+        List<LinkChecker.LinkResult> results = LinkChecker.check(collectLinks());
+        for (LinkChecker.LinkResult result : results) {
+            if (result.isBroken()) {
+                log.warn("Broken link: {} - status {} {}", result.url(), result.status(),
+                        result.error() == null ? "" : result.error());
+            }
+        }
 
-    // Comprehensive Social Media Verification
-    public boolean verifySocialMediaElements() {
-        System.out.println("=== Social Media Verification Started ===");
-        
-        boolean facebookDisplayed = isFacebookLinkDisplayed();
-        System.out.println("Facebook displayed: " + facebookDisplayed);
-        
-        boolean twitterDisplayed = isTwitterLinkDisplayed();
-        System.out.println("Twitter displayed: " + twitterDisplayed);
-        
-        boolean instagramDisplayed = isInstagramLinkDisplayed();
-        System.out.println("Instagram displayed: " + instagramDisplayed);
-        
-        boolean youtubeDisplayed = isYoutubeLinkDisplayed();
-        System.out.println("YouTube displayed: " + youtubeDisplayed);
-        
-        System.out.println("=== Social Media Verification Completed ===");
-        
-        return facebookDisplayed && twitterDisplayed && instagramDisplayed && youtubeDisplayed;
+        log.info("=== Link Health Check Completed ===");
+        return results;
     }
 }
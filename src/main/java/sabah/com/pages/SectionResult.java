@@ -0,0 +1,21 @@
+package sabah.com.pages;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Visibility of every entry of one catalog section, keyed by label in catalog order. Entries in
+// notExpected are hidden by design at the viewport checked, so they never count as missing.
+public record SectionResult(String section, Map<String, Visibility> entries, Set<String> notExpected) {
+
+    public boolean allDisplayed() {
+        return missing().isEmpty();
+    }
+
+    public List<String> missing() {
+        return entries.entrySet().stream()
+                .filter(entry -> !entry.getValue().displayed() && !notExpected.contains(entry.getKey()))
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+}
@@ -0,0 +1,28 @@
+package sabah.com.pages;
+
+import org.openqa.selenium.Rectangle;
+
+import java.util.Map;
+
+public record Visibility(boolean present, boolean displayed, Rectangle bounds, String error) {
+
+    public static final Visibility ABSENT = new Visibility(false, false, null, null);
+
+    // Maps one entry of LocatorScripts.PROBE_ALL_SCRIPT's result
+    static Visibility fromScriptResult(Object result) {
+        if (!(result instanceof Map<?, ?> map)) {
+            return ABSENT;
+        }
+        boolean present = Boolean.TRUE.equals(map.get("present"));
+        Rectangle bounds = present
+                ? new Rectangle(toInt(map.get("x")), toInt(map.get("y")), toInt(map.get("height")), toInt(map.get("width")))
+                : null;
+        Object error = map.get("error");
+        return new Visibility(present, Boolean.TRUE.equals(map.get("displayed")), bounds,
+                error == null ? null : error.toString());
+    }
+
+    private static int toInt(Object value) {
+        return value instanceof Number ? ((Number) value).intValue() : 0;
+    }
+}
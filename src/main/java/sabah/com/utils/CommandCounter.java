@@ -0,0 +1,27 @@
+package sabah.com.utils;
+
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.lang.reflect.Method;
+import java.util.Set;
+
+class CommandCounter implements WebDriverListener {
+    // Accessors that return local objects rather than sending a command to the driver
+    private static final Set<String> LOCAL_METHODS = Set.of(
+            "manage", "switchTo", "navigate", "timeouts", "window", "logs",
+            "getWrappedDriver", "getWrappedElement", "toString", "hashCode", "equals");
+
+    // Commands issued by the current thread since it started
+    private static final ThreadLocal<long[]> issuedCommands = ThreadLocal.withInitial(() -> new long[1]);
+
+    static long current() {
+        return issuedCommands.get()[0];
+    }
+
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args) {
+        if (!LOCAL_METHODS.contains(method.getName())) {
+            issuedCommands.get()[0]++;
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package sabah.com.utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import io.github.bonigarcia.wdm.WebDriverManager;
+import sabah.com.config.ConfigReader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+public class DriverBinaryResolver {
+    private static final Logger log = LogManager.getLogger(DriverBinaryResolver.class);
+
+    private static final Pattern VERSION_PATTERN = Pattern.compile("(\\d+)\\.\\d+[\\d.]*");
+    private static final boolean WINDOWS = System.getProperty("os.name").toLowerCase().contains("win");
+
+    // Resolved driver per browser, kept for the lifetime of the JVM
+    private static final Map<String, Path> resolvedDrivers = new ConcurrentHashMap<>();
+
+    private enum BrowserDriver {
+        CHROME("chromedriver", "webdriver.chrome.driver", true,
+                List.of(List.of("google-chrome", "--version"), List.of("chromium", "--version"),
+                        List.of("chromium-browser", "--version"),
+                        List.of("/Applications/Google Chrome.app/Contents/MacOS/Google Chrome", "--version"),
+                        List.of("reg", "query", "HKEY_CURRENT_USER\\Software\\Google\\Chrome\\BLBeacon", "/v", "version"))),
+        FIREFOX("geckodriver", "webdriver.gecko.driver", false,
+                List.of(List.of("firefox", "--version"),
+                        List.of("/Applications/Firefox.app/Contents/MacOS/firefox", "--version"),
+                        List.of("reg", "query", "HKEY_LOCAL_MACHINE\\Software\\Mozilla\\Mozilla Firefox", "/v", "CurrentVersion"))),
+        EDGE("msedgedriver", "webdriver.edge.driver", true,
+                List.of(List.of("microsoft-edge", "--version"), List.of("microsoft-edge-stable", "--version"),
+                        List.of("/Applications/Microsoft Edge.app/Contents/MacOS/Microsoft Edge", "--version"),
+                        List.of("reg", "query", "HKEY_CURRENT_USER\\Software\\Microsoft\\Edge\\BLBeacon", "/v", "version")));
+
+        private final String executable;
+        private final String systemProperty;
+        // chromedriver and msedgedriver must match the browser's major version; geckodriver does not
+        private final boolean versionLocked;
+        private final List<List<String>> versionCommands;
+
+        BrowserDriver(String executable, String systemProperty, boolean versionLocked, List<List<String>> versionCommands) {
+            this.executable = executable;
+            this.systemProperty = systemProperty;
+            this.versionLocked = versionLocked;
+            this.versionCommands = versionCommands;
+        }
+
+        String fileName() {
+            return WINDOWS ? executable + ".exe" : executable;
+        }
+    }
+
+    public static void setupChromeDriver() {
+        setup(BrowserDriver.CHROME);
+    }
+
+    public static void setupFirefoxDriver() {
+        setup(BrowserDriver.FIREFOX);
+    }
+
+    public static void setupEdgeDriver() {
+        setup(BrowserDriver.EDGE);
+    }
+
+    private static void setup(BrowserDriver browserDriver) {
+        Path driverPath = resolvedDrivers.computeIfAbsent(browserDriver.name(), key -> resolve(browserDriver));
+        System.setProperty(browserDriver.systemProperty, driverPath.toString());
+    }
+
+    private static Path resolve(BrowserDriver browserDriver) {
+        String browser = browserDriver.name().toLowerCase();
+
+        // 1. Explicit driver path from config
+        String configuredPath = ConfigReader.getDriverPath(browser);
+        if (!configuredPath.isEmpty()) {
+            Path path = Paths.get(configuredPath);
+            if (Files.isExecutable(path)) {
+                log.info("Using configured {}: {}", browserDriver.executable, path);
+                return path;
+            }
+            log.warn("Configured {} not found: {}", browserDriver.executable, path);
+        }
+
+        // 2. Matching driver from the local cache directory
+        String majorVersion = detectBrowserMajorVersion(browserDriver);
+        Path cacheDir = Paths.get(ConfigReader.getDriverCacheDir());
+        Optional<Path> cached = findCachedDriver(browserDriver, cacheDir, majorVersion);
+        if (cached.isPresent()) {
+            log.info("Using cached {} for browser version {}: {}", browserDriver.executable, majorVersion == null ? "unknown" : majorVersion, cached.get());
+            return cached.get();
+        }
+
+        // 3. Network lookup, only when allowed; it populates the cache for the next run
+        if (ConfigReader.isDriverOffline()) {
+            throw new RuntimeException("No cached " + browserDriver.executable + " for browser version "
+                    + majorVersion + " in " + cacheDir + " and driver.offline=true");
+        }
+        log.info("No cached {} found, resolving with WebDriverManager", browserDriver.executable);
+        WebDriverManager manager = switch (browserDriver) {
+            case CHROME -> WebDriverManager.chromedriver();
+            case FIREFOX -> WebDriverManager.firefoxdriver();
+            case EDGE -> WebDriverManager.edgedriver();
+        };
+        manager.cachePath(cacheDir.toString());
+        if (majorVersion != null) {
+            manager.browserVersion(majorVersion);
+        }
+        manager.setup();
+        return Paths.get(manager.getDownloadedDriverPath());
+    }
+
+    private static String detectBrowserMajorVersion(BrowserDriver browserDriver) {
+        String configuredVersion = ConfigReader.getBrowserVersion(browserDriver.name().toLowerCase());
+        if (!configuredVersion.isEmpty()) {
+            return majorVersionOf(configuredVersion);
+        }
+        for (List<String> command : browserDriver.versionCommands) {
+            String output = runQuietly(command);
+            if (output != null) {
+                String major = majorVersionOf(output);
+                if (major != null) {
+                    return major;
+                }
+            }
+        }
+        log.warn("Could not detect installed {} version", browserDriver.name().toLowerCase());
+        return null;
+    }
+
+    private static String majorVersionOf(String text) {
+        Matcher matcher = VERSION_PATTERN.matcher(text);
+        return matcher.find() ? matcher.group(1) : null;
+    }
+
+    private static String runQuietly(List<String> command) {
+        try {
+            Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+            try (InputStream output = process.getInputStream()) {
+                if (!process.waitFor(5, TimeUnit.SECONDS)) {
+                    process.destroyForcibly();
+                    return null;
+                }
+                return process.exitValue() == 0 ? new String(output.readAllBytes(), StandardCharsets.UTF_8) : null;
+            }
+        } catch (IOException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    // Cache layout follows WebDriverManager's: <cache>/<driver>/<os><arch>/<version>/<executable>
+    private static Optional<Path> findCachedDriver(BrowserDriver browserDriver, Path cacheDir, String majorVersion) {
+        if (!Files.isDirectory(cacheDir)) {
+            return Optional.empty();
+        }
+        try (Stream<Path> files = Files.walk(cacheDir, 6)) {
+            return files
+                    .filter(path -> path.getFileName().toString().equals(browserDriver.fileName()))
+                    .filter(Files::isExecutable)
+                    .filter(path -> !browserDriver.versionLocked || majorVersion == null
+                            || majorVersion.equals(majorVersionOf(path.getParent().getFileName().toString())))
+                    .max(Comparator.comparing(path -> path.getParent().getFileName().toString(),
+                            DriverBinaryResolver::compareVersions));
+        } catch (IOException e) {
+            log.warn("Error scanning driver cache {}: {}", cacheDir, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private static int compareVersions(String left, String right) {
+        String[] leftParts = left.split("\\.");
+        String[] rightParts = right.split("\\.");
+        for (int i = 0; i < Math.max(leftParts.length, rightParts.length); i++) {
+            int difference = Long.compare(parseOrZero(leftParts, i), parseOrZero(rightParts, i));
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return 0;
+    }
+
+    private static long parseOrZero(String[] parts, int index) {
+        if (index >= parts.length) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(parts[index].replaceAll("\\D", ""));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
@@ -1,79 +1,452 @@
 package sabah.com.utils;
 
-import io.github.bonigarcia.wdm.WebDriverManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.ThreadContext;
+import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
 import org.openqa.selenium.chrome.ChromeDriver;
 import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.chromium.ChromiumDriver;
 import org.openqa.selenium.firefox.FirefoxDriver;
 import org.openqa.selenium.firefox.FirefoxOptions;
 import org.openqa.selenium.edge.EdgeDriver;
 import org.openqa.selenium.edge.EdgeOptions;
+import org.openqa.selenium.logging.LogType;
+import org.openqa.selenium.logging.LoggingPreferences;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.SessionId;
 import sabah.com.config.ConfigReader;
 
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+
 public class DriverManager {
-    private static WebDriver driver;
+    private static final Logger log = LogManager.getLogger(DriverManager.class);
+
+    private static final String SUITE_SCOPE = "suite";
+
+    private static final LaunchProfile launchProfile = LaunchProfile.fromConfig();
+
+    private static final SessionReuseMode reuseMode = SessionReuseMode.fromConfig(ConfigReader.getSessionReuseMode());
+
+    // Session leased by the current test thread
+    private static final ThreadLocal<PooledSession> leasedSession = new ThreadLocal<>();
+
+    // Reuse scope of the test running on the current thread (test class name in CLASS mode)
+    private static final ThreadLocal<String> sessionScope = ThreadLocal.withInitial(() -> SUITE_SCOPE);
+
+    // Healthy sessions waiting to be leased again, most recently returned first
+    private static final BlockingDeque<PooledSession> idleSessions = new LinkedBlockingDeque<>();
+
+    // Every live session, leased or idle
+    private static final Set<PooledSession> allSessions = ConcurrentHashMap.newKeySet();
+
+    // One permit per session; bounds the pool to driver.pool.size browsers
+    private static final Semaphore sessionPermits = new Semaphore(ConfigReader.getDriverPoolSize(), true);
+
+    // Idle sessions kept launched ahead of demand (driver.pool.warm), never more than the pool holds
+    private static final int warmTarget = Math.min(ConfigReader.getDriverPoolWarmSize(), ConfigReader.getDriverPoolSize());
+
+    // Browsers being launched in the background
+    private static final AtomicInteger launching = new AtomicInteger();
+
+    // Browsers being launched by a checkout for its own test
+    private static final AtomicInteger checkoutLaunches = new AtomicInteger();
+
+    private static volatile boolean shuttingDown;
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(DriverManager::quitAllDrivers, "driver-pool-shutdown"));
+    }
 
     public static WebDriver getDriver() {
-        if (driver == null) {
-            initializeDriver();
+        PooledSession session = leasedSession.get();
+        if (session == null) {
+            session = checkoutSession();
+            session.markLeased();
+            leasedSession.set(session);
+            ThreadContext.put("session", getSessionId(session.getDriver()));
+        }
+        return session.getInstrumentedDriver();
+    }
+
+    // The browser leased by the current thread, or null; never starts one
+    public static WebDriver getLeasedDriver() {
+        PooledSession session = leasedSession.get();
+        return session == null ? null : session.getDriver();
+    }
+
+    public static LaunchProfile getLaunchProfile() {
+        return launchProfile;
+    }
+
+    public static SessionReuseMode getReuseMode() {
+        return reuseMode;
+    }
+
+    public static void setSessionScope(String scope) {
+        sessionScope.set(reuseMode == SessionReuseMode.CLASS && scope != null ? scope : SUITE_SCOPE);
+    }
+
+    private static String getSessionId(WebDriver driver) {
+        SessionId sessionId = driver instanceof RemoteWebDriver ? ((RemoteWebDriver) driver).getSessionId() : null;
+        return sessionId == null ? "-" : sessionId.toString().substring(0, Math.min(8, sessionId.toString().length()));
+    }
+
+    private static PooledSession checkoutSession() {
+        try {
+            sessionPermits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for a WebDriver session", e);
+        }
+
+        try {
+            // A lease after quitAllDrivers opens the pool again
+            shuttingDown = false;
+            String scope = sessionScope.get();
+            retireIdleSessionsOutsideScope(scope);
+
+            PooledSession session = null;
+            while (session == null) {
+                PooledSession idle = nextIdleSession();
+                if (idle != null) {
+                    if (isHealthy(idle.getDriver())) {
+                        log.debug("Reusing pooled WebDriver session on thread: {}", Thread.currentThread().getName());
+                        session = idle;
+                    } else {
+                        log.info("Discarding unhealthy pooled WebDriver session");
+                        destroySession(idle);
+                    }
+                } else if (reserveLaunch(false)) {
+                    try {
+                        session = new PooledSession(initializeDriver(), scope);
+                        allSessions.add(session);
+                    } finally {
+                        checkoutLaunches.decrementAndGet();
+                    }
+                } else {
+                    // Every slot is taken by sessions still being retired; one frees up shortly
+                    waitForIdleSession();
+                }
+            }
+            session.setScope(scope);
+            // The first browser lease starts the warm-up, so runs without browser tests never launch one
+            topUp();
+            return session;
+        } catch (RuntimeException e) {
+            sessionPermits.release();
+            throw e;
+        }
+    }
+
+    private static void waitForIdleSession() {
+        try {
+            PooledSession session = idleSessions.pollFirst(100, TimeUnit.MILLISECONDS);
+            if (session != null) {
+                idleSessions.offerFirst(session);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for a WebDriver session", e);
+        }
+    }
+
+    // A browser already launching in the background is closer than starting a new one
+    private static PooledSession nextIdleSession() {
+        PooledSession session = idleSessions.pollFirst();
+        try {
+            while (session == null && launching.get() > 0) {
+                session = idleSessions.pollFirst(100, TimeUnit.MILLISECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for a warm WebDriver session", e);
+        }
+        return session;
+    }
+
+    // Launches browsers in parallel until driver.pool.warm idle sessions are ready
+    private static void topUp() {
+        while (!shuttingDown && reserveLaunch(true)) {
+            Thread.ofVirtual().name("driver-warmup").start(DriverManager::launchWarmSession);
+        }
+    }
+
+    // Every launch, background or for a checkout, takes a slot here first, so the pool never holds more
+    // than driver.pool.size browsers; background launches also stop at driver.pool.warm idle sessions
+    private static synchronized boolean reserveLaunch(boolean warm) {
+        int pending = launching.get() + checkoutLaunches.get();
+        if ((warm && idleSessions.size() + launching.get() >= warmTarget)
+                || allSessions.size() + pending >= ConfigReader.getDriverPoolSize()) {
+            return false;
+        }
+        (warm ? launching : checkoutLaunches).incrementAndGet();
+        return true;
+    }
+
+    private static void launchWarmSession() {
+        try {
+            WebDriver driver = initializeDriver();
+            warmConnections(driver);
+            // No scope yet; the test that leases it claims it
+            PooledSession session = new PooledSession(driver, null);
+            allSessions.add(session);
+            if (shuttingDown) {
+                destroySession(session);
+                return;
+            }
+            idleSessions.offerLast(session);
+            log.info("Warm WebDriver session ready ({} idle)", idleSessions.size());
+        } catch (RuntimeException e) {
+            // Not retried: a browser that cannot start now will fail the same way for the test
+            log.warn("Could not launch warm WebDriver session: {}", e.getMessage());
+        } finally {
+            launching.decrementAndGet();
         }
-        return driver;
     }
 
-    private static void initializeDriver() {
+    // DNS lookup and TLS handshake for base.url happen here instead of in the first test
+    private static void warmConnections(WebDriver driver) {
+        try {
+            driver.get(LocalSite.resolveBaseUrl().replaceAll("/+$", "") + "/robots.txt");
+            resetSession(driver);
+        } catch (WebDriverException e) {
+            log.debug("Connection warm-up failed: {}", e.getMessage());
+        }
+    }
+
+    private static void retireIdleSessionsOutsideScope(String scope) {
+        if (reuseMode != SessionReuseMode.CLASS) {
+            return;
+        }
+        Iterator<PooledSession> iterator = idleSessions.iterator();
+        while (iterator.hasNext()) {
+            PooledSession session = iterator.next();
+            if (session.getScope() != null && !scope.equals(session.getScope()) && idleSessions.remove(session)) {
+                log.info("Retiring WebDriver session of finished scope: {}", session.getScope());
+                destroySession(session);
+            }
+        }
+    }
+
+    private static WebDriver initializeDriver() {
         String browser = ConfigReader.getBrowser().toLowerCase();
-        
+        WebDriver driver;
+
         switch (browser) {
             case "chrome":
-                setupChromeDriver();
+                driver = setupChromeDriver();
                 break;
             case "firefox":
-                setupFirefoxDriver();
+                driver = setupFirefoxDriver();
                 break;
             case "edge":
-                setupEdgeDriver();
+                driver = setupEdgeDriver();
                 break;
             default:
-                System.out.println("Unsupported browser: " + browser + ". Using Chrome as default.");
-                setupChromeDriver();
+                log.warn("Unsupported browser: {}. Using Chrome as default.", browser);
+                driver = setupChromeDriver();
                 break;
         }
 
-        // Configure driver settings
-        driver.manage().window().maximize();
+        NetworkFilter.install(driver);
+
+        // Configure driver settings; profiles with a fixed window size set it at launch
+        if (launchProfile.getWindowSize() == null) {
+            driver.manage().window().maximize();
+        }
         driver.manage().timeouts().implicitlyWait(java.time.Duration.ofSeconds(ConfigReader.getImplicitWait()));
         driver.manage().timeouts().pageLoadTimeout(java.time.Duration.ofSeconds(ConfigReader.getPageLoadTimeout()));
-        
-        System.out.println("WebDriver initialized successfully with browser: " + browser);
+        // Event-driven waits time out in-page; the script timeout is only a safety net above them
+        long longestWaitMs = 1000L * Math.max(ConfigReader.getExplicitWait(), ConfigReader.getPageLoadTimeout());
+        if (ConfigReader.isAdaptiveWaitEnabled()) {
+            longestWaitMs = Math.max(longestWaitMs, ConfigReader.getAdaptiveWaitCeilingMs());
+        }
+        driver.manage().timeouts().scriptTimeout(java.time.Duration.ofMillis(longestWaitMs + 5000));
+
+        log.info("WebDriver initialized successfully with browser: {} (profile: {})", browser, launchProfile.getName());
+        return driver;
     }
 
-    private static void setupChromeDriver() {
-        WebDriverManager.chromedriver().setup();
+    private static WebDriver setupChromeDriver() {
+        DriverBinaryResolver.setupChromeDriver();
         ChromeOptions options = new ChromeOptions();
         options.addArguments("--no-sandbox");
         options.addArguments("--disable-dev-shm-usage");
         options.addArguments("--disable-blink-features=AutomationControlled");
         options.setExperimentalOption("excludeSwitches", new String[]{"enable-automation"});
-        driver = new ChromeDriver(options);
+        launchProfile.applyTo(options);
+        LocalSite.applyTo(options);
+        options.setCapability(ChromeOptions.LOGGING_PREFS, consoleLogging());
+        return new ChromeDriver(options);
     }
 
-    private static void setupFirefoxDriver() {
-        WebDriverManager.firefoxdriver().setup();
+    private static WebDriver setupFirefoxDriver() {
+        DriverBinaryResolver.setupFirefoxDriver();
         FirefoxOptions options = new FirefoxOptions();
-        driver = new FirefoxDriver(options);
+        launchProfile.applyTo(options);
+        return new FirefoxDriver(options);
     }
 
-    private static void setupEdgeDriver() {
-        WebDriverManager.edgedriver().setup();
+    private static WebDriver setupEdgeDriver() {
+        DriverBinaryResolver.setupEdgeDriver();
         EdgeOptions options = new EdgeOptions();
-        driver = new EdgeDriver(options);
+        launchProfile.applyTo(options);
+        LocalSite.applyTo(options);
+        options.setCapability(ChromeOptions.LOGGING_PREFS, consoleLogging());
+        return new EdgeDriver(options);
+    }
+
+    // Lets failure artifacts read the browser console
+    private static LoggingPreferences consoleLogging() {
+        LoggingPreferences logging = new LoggingPreferences();
+        logging.enable(LogType.BROWSER, Level.ALL);
+        return logging;
+    }
+
+    private static boolean isHealthy(WebDriver driver) {
+        try {
+            driver.getWindowHandle();
+            return true;
+        } catch (WebDriverException e) {
+            return false;
+        }
+    }
+
+    // Returns the reason the session must be recycled, or null when it can serve another test
+    private static String getRecycleReason(PooledSession session) {
+        if (reuseMode == SessionReuseMode.METHOD) {
+            return "session reuse disabled";
+        }
+        if (!isHealthy(session.getDriver())) {
+            return "browser not responding";
+        }
+        if (session.getAge().compareTo(Duration.ofMinutes(ConfigReader.getSessionMaxAgeMinutes())) > 0) {
+            return "max age reached";
+        }
+        if (reuseMode == SessionReuseMode.COUNT && session.getTestsServed() >= ConfigReader.getSessionReuseMaxTests()) {
+            return "max tests per session reached";
+        }
+        long heapMb = getUsedJsHeapMb(session.getDriver());
+        if (heapMb > ConfigReader.getSessionMaxMemoryMb()) {
+            return "JS heap at " + heapMb + " MB";
+        }
+        return null;
+    }
+
+    // performance.memory is Chromium-only; other browsers report -1 and are never recycled for memory
+    private static long getUsedJsHeapMb(WebDriver driver) {
+        try {
+            Object bytes = ((JavascriptExecutor) driver).executeScript(
+                    "return window.performance && performance.memory ? performance.memory.usedJSHeapSize : -1;");
+            long value = bytes instanceof Number ? ((Number) bytes).longValue() : -1;
+            return value < 0 ? -1 : value / (1024 * 1024);
+        } catch (WebDriverException e) {
+            return -1;
+        }
+    }
+
+    private static void resetSession(WebDriver driver) {
+        // Close windows opened by the previous test
+        Set<String> handles = driver.getWindowHandles();
+        if (handles.size() > 1) {
+            String first = handles.iterator().next();
+            for (String handle : handles) {
+                if (!handle.equals(first)) {
+                    driver.switchTo().window(handle).close();
+                }
+            }
+            driver.switchTo().window(first);
+        }
+
+        try {
+            ((JavascriptExecutor) driver).executeScript(
+                    "try { window.localStorage.clear(); window.sessionStorage.clear(); } catch (e) {}");
+        } catch (WebDriverException e) {
+            // Pages without storage access (about:blank, data: URLs) have nothing to clear
+        }
+
+        if (driver instanceof ChromiumDriver) {
+            // deleteAllCookies only covers the current domain; CDP clears third-party cookies too
+            ((ChromiumDriver) driver).executeCdpCommand("Network.clearBrowserCookies", Map.of());
+        } else {
+            driver.manage().deleteAllCookies();
+        }
+        // Device emulation on Chromium, the window size a viewport check left behind elsewhere
+        ViewportMatrix.clear(driver);
+        driver.get("about:blank");
+    }
+
+    private static void destroySession(PooledSession session) {
+        allSessions.remove(session);
+        try {
+            session.getDriver().quit();
+        } catch (WebDriverException e) {
+            log.warn("Error while quitting WebDriver: {}", e.getMessage());
+        }
+        topUp();
+    }
+
+    public static void releaseDriver() {
+        PooledSession session = leasedSession.get();
+        if (session == null) {
+            return;
+        }
+        leasedSession.remove();
+        ThreadContext.remove("session");
+
+        try {
+            String recycleReason = getRecycleReason(session);
+            if (recycleReason == null) {
+                resetSession(session.getDriver());
+                session.setScope(sessionScope.get());
+                idleSessions.offerFirst(session);
+                log.debug("WebDriver reset and returned to pool (tests served: {})", session.getTestsServed());
+            } else {
+                destroySession(session);
+                log.info("WebDriver recycled: {}", recycleReason);
+            }
+        } catch (WebDriverException e) {
+            destroySession(session);
+            log.info("WebDriver recycled: reset failed - {}", e.getMessage());
+        } finally {
+            sessionPermits.release();
+        }
     }
 
     public static void quitDriver() {
-        if (driver != null) {
-            driver.quit();
-            driver = null;
-            System.out.println("WebDriver closed successfully");
+        PooledSession session = leasedSession.get();
+        if (session != null) {
+            leasedSession.remove();
+            ThreadContext.remove("session");
+            destroySession(session);
+            sessionPermits.release();
+            log.info("WebDriver closed successfully");
+        }
+    }
+
+    public static void quitAllDrivers() {
+        shuttingDown = true;
+        idleSessions.clear();
+        int closed = 0;
+        for (PooledSession session : allSessions) {
+            destroySession(session);
+            closed++;
+        }
+        if (closed > 0) {
+            log.info("Closed {} pooled WebDriver session(s)", closed);
         }
     }
 }
@@ -0,0 +1,162 @@
+package sabah.com.utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.logging.LogEntry;
+import org.openqa.selenium.logging.LogType;
+import sabah.com.config.ConfigReader;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+// Screenshot, DOM, console and network entries of a failed test. The browser is read on the test
+// thread in three calls; decoding, compression and disk writes happen on a small bounded pool.
+public class FailureArtifacts {
+    private static final Logger log = LogManager.getLogger(FailureArtifacts.class);
+
+    private static final int DRAIN_TIMEOUT_SECONDS = 60;
+
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+    // Page state in one round-trip: where it was, the live DOM and every resource it requested
+    private static final String PAGE_STATE_SCRIPT = """
+            return {
+              url: location.href,
+              title: document.title,
+              html: document.documentElement ? document.documentElement.outerHTML : '',
+              resources: performance.getEntriesByType('resource').map(function (r) {
+                return {name: r.name, type: r.initiatorType, startMs: Math.round(r.startTime),
+                        durationMs: Math.round(r.duration), transferBytes: r.transferSize || 0,
+                        status: r.responseStatus || 0};
+              })
+            };
+            """;
+
+    private record Capture(String test, String screenshotBase64, Map<?, ?> pageState, List<String> console) {
+    }
+
+    private static final AtomicInteger written = new AtomicInteger();
+
+    private static ThreadPoolExecutor writer;
+
+    public static void capture(WebDriver driver, String test) {
+        if (!ConfigReader.isFailureArtifactsEnabled() || driver == null) {
+            return;
+        }
+        long start = System.nanoTime();
+        String screenshot = null;
+        Map<?, ?> pageState = Map.of();
+        List<String> console = List.of();
+        try {
+            screenshot = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BASE64);
+        } catch (WebDriverException e) {
+            log.debug("No screenshot for {}: {}", test, e.getMessage());
+        }
+        try {
+            pageState = (Map<?, ?>) ((JavascriptExecutor) driver).executeScript(PAGE_STATE_SCRIPT);
+        } catch (WebDriverException e) {
+            log.debug("No page state for {}: {}", test, e.getMessage());
+        }
+        try {
+            List<String> lines = new ArrayList<>();
+            for (LogEntry entry : driver.manage().logs().get(LogType.BROWSER)) {
+                lines.add(entry.toString());
+            }
+            console = lines;
+        } catch (WebDriverException e) {
+            // Firefox and browsers started without logging prefs have no console log endpoint
+            log.debug("No console log for {}: {}", test, e.getMessage());
+        }
+        log.debug("Failure state of {} captured in {} ms", test, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        Capture capture = new Capture(test, screenshot, pageState, console);
+        getWriter().execute(() -> write(capture));
+    }
+
+    // Full queue runs the write on the calling thread: slower, but nothing is dropped
+    private static synchronized ThreadPoolExecutor getWriter() {
+        if (writer == null) {
+            int threads = ConfigReader.getFailureArtifactsThreads();
+            AtomicInteger threadNumber = new AtomicInteger();
+            writer = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(ConfigReader.getFailureArtifactsQueueSize()), runnable -> {
+                        Thread thread = new Thread(runnable, "failure-artifacts-" + threadNumber.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    }, new ThreadPoolExecutor.CallerRunsPolicy());
+        }
+        return writer;
+    }
+
+    private static void write(Capture capture) {
+        String name = capture.test().replaceAll("[^A-Za-z0-9._-]", "_") + "-" + LocalDateTime.now().format(TIMESTAMP);
+        Path dir = Paths.get(ConfigReader.getFailureArtifactsDir()).resolve(name);
+        try {
+            Files.createDirectories(dir);
+            if (capture.screenshotBase64() != null) {
+                Files.write(dir.resolve("screenshot.png"), Base64.getMimeDecoder().decode(capture.screenshotBase64()));
+            }
+            Object html = capture.pageState().get("html");
+            if (html != null) {
+                try (OutputStream output = new GZIPOutputStream(Files.newOutputStream(dir.resolve("page.html.gz")))) {
+                    output.write(html.toString().getBytes(StandardCharsets.UTF_8));
+                }
+            }
+            if (!capture.console().isEmpty()) {
+                Files.write(dir.resolve("console.log"), capture.console(), StandardCharsets.UTF_8);
+            }
+            Map<String, Object> page = new LinkedHashMap<>();
+            page.put("test", capture.test());
+            page.put("url", capture.pageState().get("url"));
+            page.put("title", capture.pageState().get("title"));
+            page.put("resources", capture.pageState().get("resources"));
+            Files.writeString(dir.resolve("page.json"), new Json().toJson(page), StandardCharsets.UTF_8);
+            written.incrementAndGet();
+            log.info("Failure artifacts for {} written to {}", capture.test(), dir.toAbsolutePath());
+        } catch (IOException e) {
+            log.warn("Could not write failure artifacts for {}: {}", capture.test(), e.getMessage());
+        }
+    }
+
+    // Waits for queued writes at suite end; the next failure starts a fresh pool
+    public static void drain() {
+        ThreadPoolExecutor pending;
+        synchronized (FailureArtifacts.class) {
+            pending = writer;
+            writer = null;
+        }
+        if (pending == null) {
+            return;
+        }
+        pending.shutdown();
+        try {
+            if (!pending.awaitTermination(DRAIN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                log.warn("Failure artifact writes still running after {} s", DRAIN_TIMEOUT_SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.info("Failure artifacts written for {} test(s)", written.getAndSet(0));
+    }
+}
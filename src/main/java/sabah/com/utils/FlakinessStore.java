@@ -0,0 +1,219 @@
+package sabah.com.utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.json.Json;
+import sabah.com.config.ConfigReader;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+// Every test outcome of every run, appended to one tab-separated log. Flakiness is scored from the
+// last flaky.window.runs runs of a test: runs that only passed on retry, plus pass/fail flips.
+public class FlakinessStore {
+    private static final Logger log = LogManager.getLogger(FlakinessStore.class);
+
+    public enum Status {
+        PASS, FAIL, SKIP
+    }
+
+    public record TestStats(String test, int runs, int failedRuns, int passedOnRetry, int flips, double score) {
+    }
+
+    // Attempts of one test in one run, in order
+    private record RunOutcome(List<Status> attempts) {
+
+        Status finalStatus() {
+            return attempts.get(attempts.size() - 1);
+        }
+
+        boolean passedOnRetry() {
+            return finalStatus() == Status.PASS && attempts.contains(Status.FAIL);
+        }
+    }
+
+    private static final String RUN_ID = Instant.now().toEpochMilli() + "-" + ProcessHandle.current().pid();
+
+    private static final int MAX_SIGNATURE_LENGTH = 200;
+
+    private static final FlakinessStore shared = new FlakinessStore(
+            Paths.get(ConfigReader.getFlakyHistoryFile()), Paths.get(ConfigReader.getMetricsOutputDir()));
+
+    private final Path historyFile;
+    private final Path outputDir;
+
+    // Scores from earlier runs only, so every decision in this run uses the same numbers
+    private final Map<String, TestStats> history;
+
+    private final ConcurrentLinkedQueue<String> pending = new ConcurrentLinkedQueue<>();
+
+    // The store of the configured results log, which the listeners of a real run share
+    public static FlakinessStore shared() {
+        return shared;
+    }
+
+    public FlakinessStore(Path historyFile, Path outputDir) {
+        this.historyFile = historyFile;
+        this.outputDir = outputDir;
+        this.history = load(historyFile);
+    }
+
+    public double getScore(String test) {
+        TestStats stats = history.get(test);
+        return stats == null || stats.runs() < ConfigReader.getFlakyMinRuns() ? 0 : stats.score();
+    }
+
+    public boolean isFlaky(String test) {
+        return getScore(test) >= ConfigReader.getFlakyRetryThreshold();
+    }
+
+    public boolean isQuarantined(String test) {
+        return getScore(test) >= ConfigReader.getFlakyQuarantineThreshold();
+    }
+
+    public void record(String test, Status status, int attempt, long durationMs, Throwable failure) {
+        pending.add(String.join("\t", RUN_ID, String.valueOf(System.currentTimeMillis()), test, status.name(),
+                String.valueOf(attempt), String.valueOf(durationMs), signature(failure)));
+    }
+
+    // Exception type and first message line with numbers masked, so the same failure groups together
+    static String signature(Throwable failure) {
+        if (failure == null) {
+            return "";
+        }
+        String message = failure.getMessage() == null ? "" : failure.getMessage().lines().findFirst().orElse("");
+        String signature = failure.getClass().getSimpleName() + ": " + message.replaceAll("\\d+", "#").replace('\t', ' ');
+        return signature.length() > MAX_SIGNATURE_LENGTH ? signature.substring(0, MAX_SIGNATURE_LENGTH) : signature;
+    }
+
+    // One append per JVM, so shard processes writing at the same time do not interleave lines
+    public synchronized void save() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        StringBuilder lines = new StringBuilder();
+        String line;
+        while ((line = pending.poll()) != null) {
+            lines.append(line).append('\n');
+        }
+        try {
+            Files.createDirectories(historyFile.toAbsolutePath().getParent());
+            Files.writeString(historyFile, lines, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            log.warn("Could not append test results to {}: {}", historyFile, e.getMessage());
+        }
+    }
+
+    public void export() {
+        if (history.isEmpty()) {
+            return;
+        }
+        List<Map<String, Object>> rows = new ArrayList<>();
+        history.values().stream()
+                .sorted(Comparator.comparingDouble(TestStats::score).reversed())
+                .forEach(stats -> {
+                    Map<String, Object> row = new LinkedHashMap<>();
+                    row.put("test", stats.test());
+                    row.put("runs", stats.runs());
+                    row.put("failedRuns", stats.failedRuns());
+                    row.put("passedOnRetry", stats.passedOnRetry());
+                    row.put("flips", stats.flips());
+                    row.put("score", stats.score());
+                    row.put("retried", isFlaky(stats.test()) && !isQuarantined(stats.test()));
+                    row.put("quarantined", isQuarantined(stats.test()));
+                    rows.add(row);
+                });
+
+        try {
+            Files.createDirectories(outputDir);
+            Files.writeString(outputDir.resolve("flakiness.json"), new Json().toJson(rows), StandardCharsets.UTF_8);
+            log.info("Flakiness scores for {} test(s) written to {}", rows.size(), outputDir.toAbsolutePath());
+        } catch (IOException e) {
+            log.warn("Could not write flakiness scores: {}", e.getMessage());
+        }
+    }
+
+    static Map<String, TestStats> load(Path file) {
+        Map<String, TestStats> stats = new HashMap<>();
+        if (!Files.isRegularFile(file)) {
+            return stats;
+        }
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            log.warn("Could not read test results from {}: {}", file, e.getMessage());
+            return stats;
+        }
+
+        // test -> run id -> attempts, both in log order
+        Map<String, Map<String, List<Status>>> outcomes = new HashMap<>();
+        for (String line : lines) {
+            String[] fields = line.split("\t", -1);
+            if (fields.length < 4) {
+                continue;
+            }
+            try {
+                outcomes.computeIfAbsent(fields[2], t -> new LinkedHashMap<>())
+                        .computeIfAbsent(fields[0], r -> new ArrayList<>())
+                        .add(Status.valueOf(fields[3]));
+            } catch (IllegalArgumentException e) {
+                log.debug("Ignoring malformed result line: {}", line);
+            }
+        }
+
+        int window = ConfigReader.getFlakyWindowRuns();
+        outcomes.forEach((test, runs) -> {
+            Deque<RunOutcome> recent = new ArrayDeque<>();
+            for (List<Status> attempts : runs.values()) {
+                RunOutcome outcome = new RunOutcome(attempts);
+                // Skips say nothing about whether the test is stable
+                if (outcome.finalStatus() != Status.SKIP) {
+                    recent.addLast(outcome);
+                    if (recent.size() > window) {
+                        recent.removeFirst();
+                    }
+                }
+            }
+            stats.put(test, score(test, recent));
+        });
+        log.info("Loaded results of {} test(s) from {}", stats.size(), file.toAbsolutePath());
+        return stats;
+    }
+
+    private static TestStats score(String test, Deque<RunOutcome> runs) {
+        int failed = 0;
+        int passedOnRetry = 0;
+        int flips = 0;
+        Status previous = null;
+        for (RunOutcome run : runs) {
+            if (run.finalStatus() == Status.FAIL) {
+                failed++;
+            }
+            if (run.passedOnRetry()) {
+                passedOnRetry++;
+            }
+            if (previous != null && previous != run.finalStatus()) {
+                flips++;
+            }
+            previous = run.finalStatus();
+        }
+        // A test that always fails scores 0: it is broken, not flaky
+        double score = runs.isEmpty() ? 0 : Math.min(1.0, (double) (passedOnRetry + flips) / runs.size());
+        return new TestStats(test, runs.size(), failed, passedOnRetry, flips, score);
+    }
+}
@@ -0,0 +1,142 @@
+package sabah.com.utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.PageLoadStrategy;
+import org.openqa.selenium.chromium.ChromiumOptions;
+import org.openqa.selenium.firefox.FirefoxOptions;
+import sabah.com.config.ConfigReader;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class LaunchProfile {
+    private static final Logger log = LogManager.getLogger(LaunchProfile.class);
+
+    private final String name;
+    private final boolean headless;
+    private final Dimension windowSize;
+    private final boolean disableGpu;
+    private final boolean disableExtensions;
+    private final boolean disableBackgroundNetworking;
+    private final boolean loadImages;
+    private final PageLoadStrategy pageLoadStrategy;
+
+    private LaunchProfile(String name, boolean headless, Dimension windowSize, boolean disableGpu,
+                          boolean disableExtensions, boolean disableBackgroundNetworking, boolean loadImages,
+                          PageLoadStrategy pageLoadStrategy) {
+        this.name = name;
+        this.headless = headless;
+        this.windowSize = windowSize;
+        this.disableGpu = disableGpu;
+        this.disableExtensions = disableExtensions;
+        this.disableBackgroundNetworking = disableBackgroundNetworking;
+        this.loadImages = loadImages;
+        this.pageLoadStrategy = pageLoadStrategy;
+    }
+
+    public static LaunchProfile fromConfig() {
+        LaunchProfile preset = forName(ConfigReader.getBrowserProfile());
+
+        // browser.window.size and browser.page.load.strategy override the preset
+        String windowSize = ConfigReader.getBrowserWindowSize();
+        PageLoadStrategy pageLoadStrategy = PageLoadStrategy.fromString(ConfigReader.getBrowserPageLoadStrategy().toLowerCase());
+        return new LaunchProfile(preset.name, preset.headless,
+                windowSize.isEmpty() ? preset.windowSize : parseWindowSize(windowSize),
+                preset.disableGpu, preset.disableExtensions, preset.disableBackgroundNetworking, preset.loadImages,
+                pageLoadStrategy == null ? preset.pageLoadStrategy : pageLoadStrategy);
+    }
+
+    public static LaunchProfile forName(String name) {
+        Dimension desktop = new Dimension(1920, 1080);
+        switch (name.toLowerCase()) {
+            case "default":
+                return new LaunchProfile("default", false, null, false, false, false, true, PageLoadStrategy.NORMAL);
+            case "lean":
+                return new LaunchProfile("lean", false, desktop, true, true, true, false, PageLoadStrategy.EAGER);
+            case "headless":
+                return new LaunchProfile("headless", true, desktop, false, false, false, true, PageLoadStrategy.NORMAL);
+            case "headless-lean":
+                return new LaunchProfile("headless-lean", true, desktop, true, true, true, false, PageLoadStrategy.EAGER);
+            default:
+                log.warn("Unsupported browser profile: {}. Using default profile.", name);
+                return forName("default");
+        }
+    }
+
+    private static Dimension parseWindowSize(String value) {
+        String[] parts = value.toLowerCase().split("[x,]");
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("browser.window.size must look like 1920x1080: " + value);
+        }
+        return new Dimension(Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    // Null means maximize the window
+    public Dimension getWindowSize() {
+        return windowSize;
+    }
+
+    public PageLoadStrategy getPageLoadStrategy() {
+        return pageLoadStrategy;
+    }
+
+    // Chrome and Edge share the Chromium switches
+    public void applyTo(ChromiumOptions<?> options) {
+        options.setPageLoadStrategy(pageLoadStrategy);
+        if (headless) {
+            options.addArguments("--headless=new");
+        }
+        if (windowSize != null) {
+            options.addArguments("--window-size=" + windowSize.getWidth() + "," + windowSize.getHeight());
+        }
+        if (disableGpu) {
+            options.addArguments("--disable-gpu");
+        }
+        if (disableExtensions) {
+            options.addArguments("--disable-extensions");
+        }
+        if (disableBackgroundNetworking) {
+            options.addArguments("--disable-background-networking", "--disable-component-update",
+                    "--disable-default-apps", "--disable-sync", "--no-first-run");
+        }
+        if (!loadImages) {
+            Map<String, Object> prefs = new HashMap<>();
+            prefs.put("profile.managed_default_content_settings.images", 2);
+            options.setExperimentalOption("prefs", prefs);
+            options.addArguments("--blink-settings=imagesEnabled=false");
+        }
+    }
+
+    public void applyTo(FirefoxOptions options) {
+        options.setPageLoadStrategy(pageLoadStrategy);
+        if (headless) {
+            options.addArguments("-headless");
+        }
+        if (windowSize != null) {
+            options.addArguments("--width=" + windowSize.getWidth(), "--height=" + windowSize.getHeight());
+        }
+        if (disableGpu) {
+            options.addPreference("layers.acceleration.disabled", true);
+        }
+        if (disableExtensions) {
+            options.addPreference("extensions.enabled", false);
+        }
+        if (disableBackgroundNetworking) {
+            options.addPreference("app.update.enabled", false);
+            options.addPreference("network.prefetch-next", false);
+            options.addPreference("browser.safebrowsing.malware.enabled", false);
+            options.addPreference("browser.safebrowsing.phishing.enabled", false);
+            options.addPreference("datareporting.healthreport.uploadEnabled", false);
+            options.addPreference("toolkit.telemetry.enabled", false);
+        }
+        if (!loadImages) {
+            options.addPreference("permissions.default.image", 2);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package sabah.com.utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.json.Json;
+import sabah.com.config.ConfigReader;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+// Checks links over HTTP on virtual threads; each URL is checked at most once per run
+public class LinkChecker {
+    private static final Logger log = LogManager.getLogger(LinkChecker.class);
+
+    private static final int MAX_REDIRECTS = 10;
+
+    private static final String USER_AGENT = "Mozilla/5.0 (compatible; SabahLinkChecker/1.0)";
+
+    public record LinkResult(String url, int status, String finalUrl, List<String> redirects, long latencyMs,
+                             String error) {
+
+        public boolean isBroken() {
+            return error != null || status >= 400;
+        }
+    }
+
+    // Dedupe cache: concurrent callers asking for the same URL share one request
+    private static final Map<String, CompletableFuture<LinkResult>> results = new ConcurrentHashMap<>();
+
+    // Bounds in-flight requests across all callers, and per host so one server is not flooded
+    private static final Semaphore requestPermits = new Semaphore(ConfigReader.getLinkCheckConcurrency());
+    private static final Map<String, Semaphore> hostPermits = new ConcurrentHashMap<>();
+
+    private static final HttpClient client = HttpClient.newBuilder()
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .connectTimeout(Duration.ofSeconds(ConfigReader.getLinkCheckTimeoutSeconds()))
+            .build();
+
+    public static List<LinkResult> check(Collection<String> urls) {
+        long start = System.nanoTime();
+        LinkedHashSet<String> unique = new LinkedHashSet<>();
+        for (String url : urls) {
+            unique.add(stripFragment(url));
+        }
+        List<CompletableFuture<LinkResult>> pending = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (String url : unique) {
+                pending.add(results.computeIfAbsent(url,
+                        key -> CompletableFuture.supplyAsync(() -> checkLink(key), executor)));
+            }
+            List<LinkResult> checked = pending.stream().map(CompletableFuture::join).toList();
+            log.info("Checked {} link(s) in {} ms, {} broken", checked.size(),
+                    (System.nanoTime() - start) / 1_000_000, checked.stream().filter(LinkResult::isBroken).count());
+            return checked;
+        }
+    }
+
+    private static LinkResult checkLink(String url) {
+        long start = System.nanoTime();
+        List<String> redirects = new ArrayList<>();
+        try {
+            URI uri = URI.create(url);
+            for (int hop = 0; ; hop++) {
+                HttpResponse<Void> response = send(uri, "HEAD");
+                // Some servers refuse HEAD; retry those with a GET before calling the link broken
+                if (response.statusCode() == 405 || response.statusCode() == 501) {
+                    response = send(uri, "GET");
+                }
+                Optional<String> location = response.headers().firstValue("Location");
+                if (response.statusCode() >= 300 && response.statusCode() < 400 && location.isPresent()) {
+                    if (hop == MAX_REDIRECTS) {
+                        return new LinkResult(url, response.statusCode(), uri.toString(), redirects,
+                                elapsedMs(start), "More than " + MAX_REDIRECTS + " redirects");
+                    }
+                    redirects.add(response.statusCode() + " " + uri);
+                    uri = uri.resolve(location.get());
+                    continue;
+                }
+                return new LinkResult(url, response.statusCode(), uri.toString(), redirects, elapsedMs(start), null);
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            return new LinkResult(url, 0, url, redirects, elapsedMs(start), e.getClass().getSimpleName() + ": " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new LinkResult(url, 0, url, redirects, elapsedMs(start), "Interrupted");
+        }
+    }
+
+    private static HttpResponse<Void> send(URI uri, String method) throws IOException, InterruptedException {
+        Semaphore permits = hostPermits.computeIfAbsent(String.valueOf(uri.getAuthority()),
+                host -> new Semaphore(ConfigReader.getLinkCheckPerHostLimit()));
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .method(method, HttpRequest.BodyPublishers.noBody())
+                .timeout(Duration.ofSeconds(ConfigReader.getLinkCheckTimeoutSeconds()))
+                .header("User-Agent", USER_AGENT)
+                .build();
+        // Host permit first: a request queued behind a busy host must not hold one of the global permits
+        permits.acquire();
+        try {
+            requestPermits.acquire();
+            try {
+                return client.send(request, HttpResponse.BodyHandlers.discarding());
+            } finally {
+                requestPermits.release();
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    private static long elapsedMs(long start) {
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+    private static String stripFragment(String url) {
+        int hash = url.indexOf('#');
+        return hash < 0 ? url : url.substring(0, hash);
+    }
+
+    public static void export() {
+        if (results.isEmpty()) {
+            return;
+        }
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (CompletableFuture<LinkResult> future : results.values()) {
+            LinkResult result = future.getNow(null);
+            if (result == null) {
+                continue;
+            }
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("url", result.url());
+            row.put("status", result.status());
+            row.put("finalUrl", result.finalUrl());
+            row.put("redirects", result.redirects());
+            row.put("latencyMs", result.latencyMs());
+            row.put("broken", result.isBroken());
+            row.put("error", result.error());
+            rows.add(row);
+        }
+
+        Path outputDir = Paths.get(ConfigReader.getMetricsOutputDir());
+        try {
+            Files.createDirectories(outputDir);
+            Files.writeString(outputDir.resolve("link-health.json"), new Json().toJson(rows), StandardCharsets.UTF_8);
+            log.info("Link health for {} link(s) written to {}", rows.size(), outputDir.toAbsolutePath());
+        } catch (IOException e) {
+            log.warn("Could not write link health report: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package sabah.com.utils;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.chromium.ChromiumOptions;
+import sabah.com.config.ConfigReader;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+// Localhost stand-in for base.url. Record mode proxies to the live site and keeps every response;
+// replay mode serves the saved archive, so runs are offline and deterministic.
+public class LocalSite {
+    private static final Logger log = LogManager.getLogger(LocalSite.class);
+
+    // Sub-resources from other hosts are rewritten to /_ext/<host>/... so they are recorded too
+    private static final String EXTERNAL_PREFIX = "/_ext/";
+
+    // Absolute URLs in text responses, including JSON-escaped ones and protocol-relative attributes
+    private static final Pattern ABSOLUTE_URL =
+            Pattern.compile("(?:https?:|(?<=[\"'(]))(//|\\\\/\\\\/)([A-Za-z0-9-]+(?:\\.[A-Za-z0-9-]+)+)(?=[/\\\\\"'?)\\s])");
+
+    private static final Pattern CHARSET = Pattern.compile("(?i)charset=\"?([^\";\\s]+)");
+
+    private static final SiteMode mode = SiteMode.fromConfig(ConfigReader.getSiteMode());
+
+    private static final Map<String, SiteArchive.Response> recorded = new ConcurrentHashMap<>();
+    private static final LongAdder servedResponses = new LongAdder();
+    private static final LongAdder missedResponses = new LongAdder();
+
+    private static HttpServer server;
+    private static SiteArchive archive;
+    private static HttpClient client;
+    private static URI origin;
+
+    public static boolean isEnabled() {
+        return mode != SiteMode.LIVE;
+    }
+
+    public static SiteMode getMode() {
+        return mode;
+    }
+
+    // base.url as pages should load it: the stand-in in record and replay runs, the live site otherwise
+    public static String resolveBaseUrl() {
+        return isEnabled() ? getBaseUrl() : ConfigReader.getBaseUrl();
+    }
+
+    public static synchronized String getBaseUrl() {
+        if (server == null) {
+            start();
+        }
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    // Replay runs must not reach any host but the stand-in, even from URLs built at runtime
+    public static void applyTo(ChromiumOptions<?> options) {
+        if (mode == SiteMode.REPLAY) {
+            options.addArguments("--host-resolver-rules=MAP * ~NOTFOUND, EXCLUDE 127.0.0.1");
+        }
+    }
+
+    private static void start() {
+        origin = URI.create(ConfigReader.getBaseUrl());
+        Path archiveFile = Paths.get(ConfigReader.getSiteArchiveFile());
+        try {
+            if (mode == SiteMode.REPLAY) {
+                archive = SiteArchive.open(archiveFile);
+                log.info("Replaying {} response(s) from {}", archive.size(), archiveFile.toAbsolutePath());
+            } else {
+                client = HttpClient.newBuilder()
+                        .followRedirects(HttpClient.Redirect.NORMAL)
+                        .connectTimeout(Duration.ofSeconds(ConfigReader.getPageLoadTimeout()))
+                        .build();
+            }
+            server = HttpServer.create(
+                    new InetSocketAddress(InetAddress.getLoopbackAddress(), ConfigReader.getSitePort()), 0);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to start local site in " + mode + " mode", e);
+        }
+        server.createContext("/", mode == SiteMode.REPLAY ? LocalSite::replay : LocalSite::record);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(LocalSite::stop, "local-site-shutdown"));
+        log.info("Local site ({}) listening on port {}", mode, server.getAddress().getPort());
+    }
+
+    private static void replay(HttpExchange exchange) throws IOException {
+        String key = exchange.getRequestURI().toString();
+        try (exchange) {
+            if (!"GET".equals(exchange.getRequestMethod()) || !archive.contains(key)) {
+                missedResponses.increment();
+                log.debug("Not in site archive: {} {}", exchange.getRequestMethod(), key);
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+            servedResponses.increment();
+            if (!archive.getContentType(key).isEmpty()) {
+                exchange.getResponseHeaders().set("Content-Type", archive.getContentType(key));
+            }
+            if (archive.isGzip(key)) {
+                exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+            }
+            int length = archive.getLength(key);
+            exchange.sendResponseHeaders(archive.getStatus(key), length == 0 ? -1 : length);
+            if (length > 0) {
+                archive.writeBody(key, exchange.getResponseBody());
+            }
+        }
+    }
+
+    private static void record(HttpExchange exchange) throws IOException {
+        String key = exchange.getRequestURI().toString();
+        try (exchange) {
+            // Beacons and form posts are not part of the page; answer them locally
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(204, -1);
+                return;
+            }
+            SiteArchive.Response response = recorded.get(key);
+            if (response == null) {
+                response = fetch(exchange, key);
+                recorded.putIfAbsent(key, response);
+            }
+            servedResponses.increment();
+            send(exchange, response);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static SiteArchive.Response fetch(HttpExchange exchange, String key) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(toLiveUri(key))
+                .timeout(Duration.ofSeconds(ConfigReader.getPageLoadTimeout()));
+        for (String header : new String[]{"User-Agent", "Accept", "Accept-Language"}) {
+            String value = exchange.getRequestHeaders().getFirst(header);
+            if (value != null) {
+                request.header(header, value);
+            }
+        }
+        HttpResponse<byte[]> live = client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        String contentType = live.headers().firstValue("Content-Type").orElse("");
+
+        byte[] body = live.body();
+        boolean text = isText(contentType);
+        if (text) {
+            // Re-encoded in the declared charset, so the Content-Type served on replay still matches
+            Charset charset = charsetOf(contentType);
+            body = rewriteUrls(new String(body, charset), origin.getHost()).getBytes(charset);
+            body = gzip(body);
+        }
+        log.debug("Recorded {} {} ({} bytes)", live.statusCode(), key, body.length);
+        return new SiteArchive.Response(live.statusCode(), contentType, text, body);
+    }
+
+    private static void send(HttpExchange exchange, SiteArchive.Response response) throws IOException {
+        if (!response.contentType().isEmpty()) {
+            exchange.getResponseHeaders().set("Content-Type", response.contentType());
+        }
+        if (response.gzip()) {
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+        }
+        byte[] body = response.body();
+        exchange.sendResponseHeaders(response.status(), body.length == 0 ? -1 : body.length);
+        if (body.length > 0) {
+            try (OutputStream output = exchange.getResponseBody()) {
+                output.write(body);
+            }
+        }
+    }
+
+    private static URI toLiveUri(String key) {
+        if (key.startsWith(EXTERNAL_PREFIX)) {
+            return URI.create("https://" + key.substring(EXTERNAL_PREFIX.length()));
+        }
+        return origin.resolve(key);
+    }
+
+    // The live host becomes root-relative; any other host is routed through /_ext/<host>
+    static String rewriteUrls(String content, String originHost) {
+        Matcher matcher = ABSOLUTE_URL.matcher(content);
+        StringBuilder rewritten = new StringBuilder(content.length());
+        while (matcher.find()) {
+            boolean escaped = !"//".equals(matcher.group(1));
+            String host = matcher.group(2);
+            String replacement = host.equalsIgnoreCase(originHost) ? "" : EXTERNAL_PREFIX + host;
+            matcher.appendReplacement(rewritten, Matcher.quoteReplacement(
+                    escaped ? replacement.replace("/", "\\/") : replacement));
+        }
+        matcher.appendTail(rewritten);
+        return rewritten.toString();
+    }
+
+    // charset parameter of Content-Type; UTF-8 when absent or unknown to the JVM
+    static Charset charsetOf(String contentType) {
+        Matcher matcher = CHARSET.matcher(contentType);
+        if (matcher.find()) {
+            try {
+                return Charset.forName(matcher.group(1));
+            } catch (IllegalArgumentException e) {
+                log.debug("Unknown charset in '{}', using UTF-8", contentType);
+            }
+        }
+        return StandardCharsets.UTF_8;
+    }
+
+    private static boolean isText(String contentType) {
+        String type = contentType.toLowerCase();
+        return type.startsWith("text/") || type.contains("javascript") || type.contains("json")
+                || type.contains("xml") || type.contains("svg");
+    }
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (GZIPOutputStream output = new GZIPOutputStream(compressed)) {
+            output.write(body);
+        }
+        return compressed.toByteArray();
+    }
+
+    // Writes the archive in record mode; safe to call more than once
+    public static synchronized void stop() {
+        if (server == null) {
+            return;
+        }
+        server.stop(0);
+        server = null;
+        if (mode == SiteMode.REPLAY) {
+            log.info("Local site replayed {} response(s), {} not in archive", servedResponses.sum(), missedResponses.sum());
+        }
+        if (mode == SiteMode.RECORD && !recorded.isEmpty()) {
+            Path archiveFile = Paths.get(ConfigReader.getSiteArchiveFile());
+            try {
+                SiteArchive.write(archiveFile, recorded);
+                log.info("Recorded {} response(s) to {}", recorded.size(), archiveFile.toAbsolutePath());
+            } catch (IOException e) {
+                log.error("Could not write site archive: {}", e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package sabah.com.utils;
+
+import org.openqa.selenium.By;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class LocatorScripts {
+
+    // Resolves a locator spec ({using, value}) to the first matching element, mirroring findElement
+    public static final String FIND_ELEMENT_FUNCTION = """
+            function findElement(spec) {
+              switch (spec.using) {
+                case 'css selector':
+                  return document.querySelector(spec.value);
+                case 'xpath':
+                  return document.evaluate(spec.value, document, null,
+                      XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;
+                case 'tag name':
+                  return document.getElementsByTagName(spec.value)[0] || null;
+                case 'link text':
+                case 'partial link text':
+                  var links = document.getElementsByTagName('a');
+                  for (var i = 0; i < links.length; i++) {
+                    var text = (links[i].innerText || '').trim();
+                    if (spec.using === 'link text' ? text === spec.value : text.indexOf(spec.value) !== -1) {
+                      return links[i];
+                    }
+                  }
+                  return null;
+              }
+              throw new Error('Unsupported locator strategy: ' + spec.using);
+            }
+            """;
+
+    // Approximates WebElement.isDisplayed: rendered, non-zero box, not hidden by CSS
+    public static final String IS_SHOWN_FUNCTION = """
+            function isShown(el, rect) {
+              if (rect.width <= 0 || rect.height <= 0) {
+                return false;
+              }
+              if (typeof el.checkVisibility === 'function') {
+                return el.checkVisibility({visibilityProperty: true, opacityProperty: true});
+              }
+              for (var node = el; node && node.nodeType === 1; node = node.parentElement) {
+                var style = window.getComputedStyle(node);
+                if (style.display === 'none' || style.visibility === 'hidden' || style.opacity === '0') {
+                  return false;
+                }
+              }
+              return true;
+            }
+            """;
+
+    // Probes every spec and reports {present, displayed, x, y, width, height, error}; settled entries need no more waiting
+    public static final String PROBE_FUNCTION = """
+            function probe(specs) {
+              return specs.map(function (spec) {
+                try {
+                  var el = findElement(spec);
+                  if (!el) {
+                    return {present: false, displayed: false, noWait: !!spec.noWait};
+                  }
+                  var rect = el.getBoundingClientRect();
+                  return {
+                    present: true,
+                    displayed: isShown(el, rect),
+                    noWait: !!spec.noWait,
+                    x: Math.round(rect.left + window.scrollX),
+                    y: Math.round(rect.top + window.scrollY),
+                    width: Math.round(rect.width),
+                    height: Math.round(rect.height)
+                  };
+                } catch (e) {
+                  return {present: false, displayed: false, error: String(e && e.message ? e.message : e)};
+                }
+              });
+            }
+            // noWait entries are reported as found but never waited for
+            function isSettled(entry) {
+              return entry.displayed || !!entry.error || entry.noWait;
+            }
+            """;
+
+    // Re-evaluates check() on every DOM mutation until it reports done or the timeout passes,
+    // then calls back once with {timedOut, value}. The short interval catches layout-only changes
+    // (stylesheets, fonts, images) that fire no mutations.
+    public static final String AWAIT_CONDITION_FUNCTION = """
+            function awaitCondition(check, timeoutMs, callback) {
+              var done = false, last = null, observer = null, timer = null, ticker = null;
+              function finish(timedOut) {
+                if (done) {
+                  return;
+                }
+                done = true;
+                if (observer) {
+                  observer.disconnect();
+                }
+                clearTimeout(timer);
+                clearInterval(ticker);
+                callback({timedOut: timedOut, value: last});
+              }
+              function evaluate() {
+                if (done) {
+                  return;
+                }
+                var result = check();
+                last = result.value;
+                if (result.done) {
+                  finish(false);
+                }
+              }
+              evaluate();
+              if (done) {
+                return;
+              }
+              observer = new MutationObserver(evaluate);
+              observer.observe(document.documentElement || document,
+                  {childList: true, subtree: true, attributes: true, characterData: true});
+              ticker = setInterval(evaluate, 100);
+              timer = setTimeout(function () { finish(true); }, timeoutMs);
+            }
+            """;
+
+    // arguments[0]: array of locator specs; returns one probe entry per spec
+    public static final String PROBE_ALL_SCRIPT = FIND_ELEMENT_FUNCTION + IS_SHOWN_FUNCTION + PROBE_FUNCTION
+            + "return probe(arguments[0]);";
+
+    // arguments: specs, timeoutMs, callback; waits until every entry is settled
+    public static final String AWAIT_PROBE_ALL_SCRIPT = FIND_ELEMENT_FUNCTION + IS_SHOWN_FUNCTION + PROBE_FUNCTION
+            + AWAIT_CONDITION_FUNCTION + """
+            var specs = arguments[0], callback = arguments[arguments.length - 1];
+            awaitCondition(function () {
+              var entries = probe(specs);
+              return {done: entries.every(isSettled), value: entries};
+            }, arguments[1], callback);
+            """;
+
+    // arguments: spec, condition (present, visible or clickable), timeoutMs, callback; value is the element
+    public static final String AWAIT_ELEMENT_SCRIPT = FIND_ELEMENT_FUNCTION + IS_SHOWN_FUNCTION + AWAIT_CONDITION_FUNCTION + """
+            var spec = arguments[0], condition = arguments[1], callback = arguments[arguments.length - 1];
+            awaitCondition(function () {
+              try {
+                var el = findElement(spec);
+                if (!el) {
+                  return {done: false, value: null};
+                }
+                var ready = condition === 'present'
+                    || (isShown(el, el.getBoundingClientRect()) && (condition !== 'clickable' || !el.disabled));
+                return {done: ready, value: ready ? el : null};
+              } catch (e) {
+                return {done: true, value: {error: String(e && e.message ? e.message : e)}};
+              }
+            }, arguments[2], callback);
+            """;
+
+    // arguments: acceptInteractive, timeoutMs, callback; calls back with true once the document is ready
+    public static final String AWAIT_READY_STATE_SCRIPT = """
+            var acceptInteractive = arguments[0], callback = arguments[arguments.length - 1], done = false;
+            function isReady() {
+              return document.readyState === 'complete' || (acceptInteractive && document.readyState === 'interactive');
+            }
+            function finish(ready) {
+              if (!done) {
+                done = true;
+                callback(ready);
+              }
+            }
+            if (isReady()) {
+              finish(true);
+            } else {
+              var timer = setTimeout(function () { finish(false); }, arguments[1]);
+              document.addEventListener('readystatechange', function () {
+                if (isReady()) {
+                  clearTimeout(timer);
+                  finish(true);
+                }
+              });
+            }
+            """;
+
+    public static Map<String, Object> toSpec(By locator) {
+        if (!(locator instanceof By.Remotable)) {
+            throw new IllegalArgumentException("Locator cannot be evaluated in the browser: " + locator);
+        }
+        By.Remotable.Parameters parameters = ((By.Remotable) locator).getRemoteParameters();
+        return Map.of("using", parameters.using(), "value", String.valueOf(parameters.value()));
+    }
+
+    // A spec the batch probe reports on without waiting for it to become visible
+    public static Map<String, Object> toNoWaitSpec(By locator) {
+        Map<String, Object> spec = new HashMap<>(toSpec(locator));
+        spec.put("noWait", true);
+        return spec;
+    }
+}
@@ -0,0 +1,192 @@
+package sabah.com.utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jsoup.select.Evaluator;
+import org.jsoup.select.QueryParser;
+import org.jsoup.select.Selector;
+import org.openqa.selenium.By;
+import org.openqa.selenium.InvalidSelectorException;
+import org.openqa.selenium.support.FindAll;
+import org.openqa.selenium.support.FindBy;
+import org.openqa.selenium.support.FindBys;
+import org.openqa.selenium.support.pagefactory.Annotations;
+import sabah.com.config.ConfigReader;
+
+import javax.xml.xpath.XPathExpressionException;
+import javax.xml.xpath.XPathFactory;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Parses locators once, before any wait is spent on them. Browsers report a bad selector as
+// InvalidSelectorException, a NoSuchElementException that WebDriverWait silently retries until timeout.
+public class LocatorValidator {
+    private static final Logger log = LogManager.getLogger(LocatorValidator.class);
+
+    // jQuery/Sizzle and jsoup extensions that no browser's querySelector accepts. Only these are
+    // rejected: anything else is left to the browser, whose CSS is wider than any parser here
+    private static final Pattern NON_STANDARD_PSEUDO = Pattern.compile(
+            ":(first|last|even|odd|eq|gt|lt|contains|visible|hidden|animated|header|input|button|checkbox"
+                    + "|radio|text|password|submit|reset|image|file|selected|parent"
+                    + "|containsOwn|containsData|containsWholeText|containsWholeOwnText"
+                    + "|matches|matchesOwn|matchText|matchesWholeText|matchesWholeOwnText)(?![\\w-])");
+
+    // A selector may not start or end with a combinator or comma, nor have an empty list item
+    private static final Pattern DANGLING = Pattern.compile("^\\s*[>+~,]|[>+~,]\\s*$|,\\s*,");
+
+    // Quoted attribute values may contain anything, so they are blanked before scanning for pseudos
+    private static final Pattern QUOTED = Pattern.compile("'[^']*'|\"[^\"]*\"");
+
+    // evaluator is null when jsoup cannot run a selector the browser accepts (:hover, ::before, ...)
+    private record Compiled(Evaluator evaluator, String error) {
+    }
+
+    private static final Map<By, Compiled> compiled = new ConcurrentHashMap<>();
+
+    // Errors for every By constant and @FindBy field of a page class, found once per class
+    private static final ClassValue<List<String>> pageErrors = new ClassValue<>() {
+        @Override
+        protected List<String> computeValue(Class<?> pageClass) {
+            return scanPage(pageClass);
+        }
+    };
+
+    public static void requireValid(By locator) {
+        if (!ConfigReader.isLocatorValidationEnabled()) {
+            return;
+        }
+        String error = compile(locator).error();
+        if (error != null) {
+            throw new InvalidSelectorException(error + " (" + locator + ")");
+        }
+    }
+
+    // Pre-parsed CSS for the static engine; null for other strategies
+    public static Evaluator getCssEvaluator(By locator) {
+        requireValid(locator);
+        return compile(locator).evaluator();
+    }
+
+    public static void validatePage(Class<?> pageClass) {
+        if (!ConfigReader.isLocatorValidationEnabled()) {
+            return;
+        }
+        List<String> errors = pageErrors.get(pageClass);
+        if (!errors.isEmpty()) {
+            throw new InvalidSelectorException(pageClass.getSimpleName() + " has invalid locators:\n  "
+                    + String.join("\n  ", errors));
+        }
+    }
+
+    private static Compiled compile(By locator) {
+        return compiled.computeIfAbsent(locator, LocatorValidator::parse);
+    }
+
+    private static Compiled parse(By locator) {
+        if (!(locator instanceof By.Remotable)) {
+            return new Compiled(null, null);
+        }
+        By.Remotable.Parameters parameters = ((By.Remotable) locator).getRemoteParameters();
+        String value = String.valueOf(parameters.value());
+        switch (parameters.using()) {
+            case "css selector":
+                String error = checkCss(value);
+                if (error != null) {
+                    return new Compiled(null, error);
+                }
+                try {
+                    return new Compiled(QueryParser.parse(value), null);
+                } catch (Selector.SelectorParseException e) {
+                    return new Compiled(null, null);
+                }
+            case "xpath":
+                try {
+                    XPathFactory.newInstance().newXPath().compile(value);
+                    return new Compiled(null, null);
+                } catch (XPathExpressionException e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    return new Compiled(null, "Invalid XPath: " + cause.getMessage());
+                }
+            default:
+                return new Compiled(null, null);
+        }
+    }
+
+    private static String checkCss(String value) {
+        if (value.isBlank()) {
+            return "Empty CSS selector";
+        }
+        String unquoted = QUOTED.matcher(value).replaceAll("_");
+        Matcher pseudo = NON_STANDARD_PSEUDO.matcher(unquoted);
+        if (pseudo.find()) {
+            return "Non-standard pseudo-selector '" + pseudo.group() + "' is not valid CSS";
+        }
+        if (unquoted.indexOf('"') >= 0 || unquoted.indexOf('\'') >= 0) {
+            return "Invalid CSS selector: unterminated string";
+        }
+        Deque<Character> open = new ArrayDeque<>();
+        for (int i = 0; i < unquoted.length(); i++) {
+            char c = unquoted.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == '(' || c == '[') {
+                open.push(c);
+            } else if (c == ')' || c == ']') {
+                if (open.isEmpty() || open.pop() != (c == ')' ? '(' : '[')) {
+                    return "Invalid CSS selector: unbalanced '" + c + "'";
+                }
+            }
+        }
+        if (!open.isEmpty()) {
+            return "Invalid CSS selector: unclosed '" + open.peek() + "'";
+        }
+        if (DANGLING.matcher(unquoted).find()) {
+            return "Invalid CSS selector: dangling combinator or comma";
+        }
+        return null;
+    }
+
+    private static List<String> scanPage(Class<?> pageClass) {
+        List<String> errors = new ArrayList<>();
+        int checked = 0;
+        for (Class<?> type = pageClass; type != null && type != Object.class; type = type.getSuperclass()) {
+            for (Field field : type.getDeclaredFields()) {
+                By locator = toLocator(field);
+                if (locator == null) {
+                    continue;
+                }
+                checked++;
+                String error = compile(locator).error();
+                if (error != null) {
+                    errors.add(type.getSimpleName() + "." + field.getName() + ": " + error + " (" + locator + ")");
+                }
+            }
+        }
+        log.debug("Validated {} locator(s) of {}", checked, pageClass.getSimpleName());
+        return List.copyOf(errors);
+    }
+
+    private static By toLocator(Field field) {
+        if (field.isAnnotationPresent(FindBy.class) || field.isAnnotationPresent(FindBys.class)
+                || field.isAnnotationPresent(FindAll.class)) {
+            return new Annotations(field).buildBy();
+        }
+        if (field.getType() == By.class && Modifier.isStatic(field.getModifiers())) {
+            try {
+                field.setAccessible(true);
+                return (By) field.get(null);
+            } catch (IllegalAccessException | RuntimeException e) {
+                log.debug("Cannot read locator field {}: {}", field.getName(), e.getMessage());
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,129 @@
+package sabah.com.utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.chromium.ChromiumDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.json.Json;
+import sabah.com.config.ConfigReader;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+public class NetworkFilter {
+    private static final Logger log = LogManager.getLogger(NetworkFilter.class);
+
+    // Raw CDP events, so the filter does not depend on a versioned devtools package
+    private static final Event<Map<String, Object>> LOADING_FAILED =
+            new Event<>("Network.loadingFailed", input -> input.read(Json.MAP_TYPE));
+    private static final Event<Map<String, Object>> LOADING_FINISHED =
+            new Event<>("Network.loadingFinished", input -> input.read(Json.MAP_TYPE));
+    private static final Event<Map<String, Object>> REQUEST_PAUSED =
+            new Event<>("Fetch.requestPaused", input -> input.read(Json.MAP_TYPE));
+
+    // Per-run totals across every browser session
+    private static final LongAdder blockedRequests = new LongAdder();
+    private static final LongAdder finishedRequests = new LongAdder();
+    private static final LongAdder transferredBytes = new LongAdder();
+    private static final Map<String, LongAdder> blockedByType = new ConcurrentHashMap<>();
+
+    // Sessions the filter is active on; weak so quit drivers drop out
+    private static final Set<WebDriver> filteredDrivers = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
+    public static void install(WebDriver driver) {
+        if (!ConfigReader.isNetworkFilterEnabled()) {
+            return;
+        }
+        if (!(driver instanceof ChromiumDriver)) {
+            log.info("Network filter needs Chrome DevTools; skipped for {}", driver.getClass().getSimpleName());
+            return;
+        }
+
+        List<String> blockedUrls = ConfigReader.getNetworkFilterBlockedUrls();
+        List<String> blockedTypes = ConfigReader.getNetworkFilterBlockedTypes();
+        try {
+            DevTools devTools = ((ChromiumDriver) driver).getDevTools();
+            devTools.createSessionIfThereIsNotOne();
+            devTools.addListener(LOADING_FAILED, NetworkFilter::onLoadingFailed);
+            devTools.addListener(LOADING_FINISHED, NetworkFilter::onLoadingFinished);
+            devTools.send(new Command<Void>("Network.enable", Map.of()));
+
+            // URL patterns are matched inside the browser, so allowed requests never round-trip to Java
+            if (!blockedUrls.isEmpty()) {
+                devTools.send(new Command<Void>("Network.setBlockedURLs", Map.of("urls", blockedUrls)));
+            }
+
+            // Resource types need the Fetch domain; only requests of those types are paused
+            if (!blockedTypes.isEmpty()) {
+                devTools.addListener(REQUEST_PAUSED, params -> devTools.send(new Command<Void>("Fetch.failRequest",
+                        Map.of("requestId", params.get("requestId"), "errorReason", "BlockedByClient"))));
+                List<Map<String, Object>> patterns = new ArrayList<>();
+                for (String type : blockedTypes) {
+                    patterns.add(Map.of("urlPattern", "*", "resourceType", type, "requestStage", "Request"));
+                }
+                devTools.send(new Command<Void>("Fetch.enable", Map.of("patterns", patterns)));
+            }
+            filteredDrivers.add(driver);
+            log.info("Network filter installed: {} URL pattern(s), resource types {}", blockedUrls.size(), blockedTypes);
+        } catch (WebDriverException e) {
+            log.error("Could not install network filter: {}", e.getMessage());
+        }
+    }
+
+    public static boolean isInstalled(WebDriver driver) {
+        return filteredDrivers.contains(driver);
+    }
+
+    private static void onLoadingFailed(Map<String, Object> params) {
+        Object errorText = params.get("errorText");
+        boolean blocked = params.get("blockedReason") != null
+                || (errorText != null && errorText.toString().contains("ERR_BLOCKED_BY_CLIENT"));
+        if (blocked) {
+            blockedRequests.increment();
+            Object type = params.get("type");
+            blockedByType.computeIfAbsent(type == null ? "Other" : type.toString(), key -> new LongAdder()).increment();
+        }
+    }
+
+    private static void onLoadingFinished(Map<String, Object> params) {
+        finishedRequests.increment();
+        Object length = params.get("encodedDataLength");
+        if (length instanceof Number) {
+            transferredBytes.add(((Number) length).longValue());
+        }
+    }
+
+    public static long getBlockedRequests() {
+        return blockedRequests.sum();
+    }
+
+    public static long getTransferredBytes() {
+        return transferredBytes.sum();
+    }
+
+    public static Map<String, Long> getBlockedByType() {
+        Map<String, Long> counts = new TreeMap<>();
+        blockedByType.forEach((type, count) -> counts.put(type, count.sum()));
+        return counts;
+    }
+
+    public static void printReport() {
+        if (!ConfigReader.isNetworkFilterEnabled()) {
+            return;
+        }
+        log.info("=== Network Filter Report ===");
+        log.info("Blocked requests: {} {}", getBlockedRequests(), getBlockedByType());
+        log.info("Completed requests: {}, transferred: {} KB", finishedRequests.sum(), getTransferredBytes() / 1024);
+    }
+}
@@ -0,0 +1,138 @@
+package sabah.com.utils;
+
+import sabah.com.config.ConfigReader;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Navigation Timing, paint/Web Vitals and resource transfer sizes of one page load. Times are ms from navigation start.
+// Sizes leave out opaque resources (cross-origin without Timing-Allow-Origin), so they are a lower bound when
+// opaqueResources > 0; networkFiltered is true when NetworkFilter was blocking requests during the load.
+public record PagePerformance(String url, double ttfbMs, double fcpMs, double domContentLoadedMs, double loadMs,
+                              double lcpMs, double cls, double tbtMs, long resourceCount, long transferBytes,
+                              long scriptBytes, long styleBytes, long imageBytes, long opaqueResources,
+                              long opaqueScripts, boolean networkFiltered) {
+
+    // LCP, layout shifts and long tasks are only exposed to observers; buffered: true replays what already happened
+    public static final String CAPTURE_SCRIPT = """
+            var callback = arguments[arguments.length - 1];
+            var lcp = 0, cls = 0, longTasks = [], observers = [];
+            function handle(type, entry) {
+              if (type === 'largest-contentful-paint') {
+                lcp = Math.max(lcp, entry.startTime);
+              } else if (type === 'layout-shift') {
+                if (!entry.hadRecentInput) {
+                  cls += entry.value;
+                }
+              } else {
+                longTasks.push(entry);
+              }
+            }
+            ['largest-contentful-paint', 'layout-shift', 'longtask'].forEach(function (type) {
+              try {
+                var observer = new PerformanceObserver(function (list) {
+                  list.getEntries().forEach(function (entry) { handle(type, entry); });
+                });
+                observer.observe({type: type, buffered: true});
+                observers.push({type: type, observer: observer});
+              } catch (e) {
+                // Entry type not supported by this browser
+              }
+            });
+            setTimeout(function () {
+              observers.forEach(function (o) {
+                o.observer.takeRecords().forEach(function (entry) { handle(o.type, entry); });
+                o.observer.disconnect();
+              });
+              var nav = performance.getEntriesByType('navigation')[0] || {};
+              var paint = performance.getEntriesByName('first-contentful-paint')[0];
+              var fcp = paint ? paint.startTime : 0;
+              // Total Blocking Time: the part of each long task after first paint beyond 50 ms
+              var tbt = 0;
+              longTasks.forEach(function (task) {
+                if (task.startTime >= fcp) {
+                  tbt += Math.max(0, task.duration - 50);
+                }
+              });
+              var bytes = {script: 0, style: 0, image: 0}, transfer = nav.transferSize || 0, count = 0;
+              var opaque = 0, opaqueScripts = 0;
+              performance.getEntriesByType('resource').forEach(function (r) {
+                var size = r.transferSize || r.encodedBodySize || 0;
+                var script = r.initiatorType === 'script' || /\\.m?js(\\?|$)/.test(r.name);
+                // Cross-origin resources without Timing-Allow-Origin report 0 for every size; a cache hit keeps encodedBodySize
+                if (size === 0 && r.decodedBodySize === 0 && r.responseStart === 0) {
+                  opaque++;
+                  if (script) {
+                    opaqueScripts++;
+                  }
+                }
+                if (script) {
+                  bytes.script += size;
+                } else if (r.initiatorType === 'css' || /\\.css(\\?|$)/.test(r.name)) {
+                  bytes.style += size;
+                } else if (r.initiatorType === 'img' || r.initiatorType === 'image') {
+                  bytes.image += size;
+                }
+                transfer += size;
+                count++;
+              });
+              callback({
+                url: location.href, ttfb: nav.responseStart || 0, fcp: fcp,
+                domContentLoaded: nav.domContentLoadedEventEnd || 0, load: nav.loadEventEnd || 0,
+                lcp: lcp, cls: cls, tbt: tbt, resources: count, transferBytes: transfer,
+                scriptBytes: bytes.script, styleBytes: bytes.style, imageBytes: bytes.image,
+                opaqueResources: opaque, opaqueScripts: opaqueScripts
+              });
+            }, 0);
+            """;
+
+    static PagePerformance fromScriptResult(Object result, boolean networkFiltered) {
+        Map<?, ?> map = result instanceof Map<?, ?> ? (Map<?, ?>) result : Map.of();
+        Object url = map.get("url");
+        return new PagePerformance(url == null ? "" : url.toString(),
+                toDouble(map.get("ttfb")), toDouble(map.get("fcp")), toDouble(map.get("domContentLoaded")),
+                toDouble(map.get("load")), toDouble(map.get("lcp")), toDouble(map.get("cls")), toDouble(map.get("tbt")),
+                toLong(map.get("resources")), toLong(map.get("transferBytes")), toLong(map.get("scriptBytes")),
+                toLong(map.get("styleBytes")), toLong(map.get("imageBytes")), toLong(map.get("opaqueResources")),
+                toLong(map.get("opaqueScripts")), networkFiltered);
+    }
+
+    public boolean isSizeLowerBound() {
+        return opaqueResources > 0;
+    }
+
+    // How the numbers were measured, for logs and reports next to the budget result
+    public String describeConditions() {
+        return (networkFiltered ? "network filter on" : "network filter off")
+                + (isSizeLowerBound() ? String.format(", sizes are a lower bound: %d opaque resource(s), %d script(s)",
+                opaqueResources, opaqueScripts) : "");
+    }
+
+    // Budgets come from performance.budget.*; a budget of 0 is not checked
+    public List<String> checkBudgets() {
+        List<String> violations = new ArrayList<>();
+        checkBudget(violations, "LCP", lcpMs, ConfigReader.getPerformanceBudget("lcp.ms"), "ms");
+        checkBudget(violations, "CLS", cls, ConfigReader.getPerformanceBudget("cls"), "");
+        checkBudget(violations, "TBT", tbtMs, ConfigReader.getPerformanceBudget("tbt.ms"), "ms");
+        checkBudget(violations, "TTFB", ttfbMs, ConfigReader.getPerformanceBudget("ttfb.ms"), "ms");
+        checkBudget(violations, "Load", loadMs, ConfigReader.getPerformanceBudget("load.ms"), "ms");
+        checkBudget(violations, "Script size", scriptBytes / 1024.0, ConfigReader.getPerformanceBudget("script.kb"), "KB");
+        checkBudget(violations, "Transfer size", transferBytes / 1024.0, ConfigReader.getPerformanceBudget("transfer.kb"), "KB");
+        return violations;
+    }
+
+    private static void checkBudget(List<String> violations, String name, double actual, double budget, String unit) {
+        if (budget > 0 && actual > budget) {
+            violations.add(String.format("%s %.2f%s exceeds budget %.2f%s", name, actual, unit, budget, unit));
+        }
+    }
+
+    private static double toDouble(Object value) {
+        return value instanceof Number ? ((Number) value).doubleValue() : 0;
+    }
+
+    private static long toLong(Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : 0;
+    }
+}
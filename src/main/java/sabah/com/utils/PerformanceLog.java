@@ -0,0 +1,91 @@
+package sabah.com.utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.ThreadContext;
+import org.openqa.selenium.JavascriptException;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.ScriptTimeoutException;
+import org.openqa.selenium.UnsupportedCommandException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.json.Json;
+import sabah.com.config.ConfigReader;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+// Page performance of every navigation in the run, written next to the step metrics at suite end
+public class PerformanceLog {
+    private static final Logger log = LogManager.getLogger(PerformanceLog.class);
+
+    private record Entry(String test, PagePerformance performance) {
+    }
+
+    private static final ConcurrentLinkedQueue<Entry> entries = new ConcurrentLinkedQueue<>();
+
+    // Returns null when the browser cannot report timings
+    public static PagePerformance capture(WebDriver driver) {
+        try {
+            PagePerformance performance = PagePerformance.fromScriptResult(
+                    ((JavascriptExecutor) driver).executeAsyncScript(PagePerformance.CAPTURE_SCRIPT),
+                    NetworkFilter.isInstalled(driver));
+            String test = ThreadContext.get("test");
+            entries.add(new Entry(test == null ? "" : test, performance));
+            log.debug("Page performance for {}: LCP {} ms, CLS {}, TBT {} ms, {} KB", performance.url(),
+                    Math.round(performance.lcpMs()), performance.cls(), Math.round(performance.tbtMs()),
+                    performance.transferBytes() / 1024);
+            return performance;
+        } catch (JavascriptException | UnsupportedCommandException | ScriptTimeoutException e) {
+            log.info("Page performance unavailable: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    public static void export() {
+        if (entries.isEmpty()) {
+            return;
+        }
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Entry entry : entries) {
+            PagePerformance performance = entry.performance();
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("test", entry.test());
+            row.put("url", performance.url());
+            row.put("ttfbMs", performance.ttfbMs());
+            row.put("fcpMs", performance.fcpMs());
+            row.put("domContentLoadedMs", performance.domContentLoadedMs());
+            row.put("loadMs", performance.loadMs());
+            row.put("lcpMs", performance.lcpMs());
+            row.put("cls", performance.cls());
+            row.put("tbtMs", performance.tbtMs());
+            row.put("resourceCount", performance.resourceCount());
+            row.put("transferBytes", performance.transferBytes());
+            row.put("scriptBytes", performance.scriptBytes());
+            row.put("styleBytes", performance.styleBytes());
+            row.put("imageBytes", performance.imageBytes());
+            row.put("opaqueResources", performance.opaqueResources());
+            row.put("opaqueScripts", performance.opaqueScripts());
+            row.put("sizeLowerBound", performance.isSizeLowerBound());
+            row.put("networkFiltered", performance.networkFiltered());
+            row.put("budgetViolations", performance.checkBudgets());
+            rows.add(row);
+        }
+
+        Path outputDir = Paths.get(ConfigReader.getMetricsOutputDir());
+        try {
+            Files.createDirectories(outputDir);
+            Files.writeString(outputDir.resolve("page-performance.json"), new Json().toJson(rows), StandardCharsets.UTF_8);
+            log.info("Page performance for {} navigation(s) written to {}", rows.size(), outputDir.toAbsolutePath());
+        } catch (IOException e) {
+            log.warn("Could not write page performance: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package sabah.com.utils;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+
+import java.time.Duration;
+
+class PooledSession {
+    private final WebDriver driver;
+    // What tests see: the same browser with every WebDriver call counted for step metrics
+    private final WebDriver instrumentedDriver;
+    private final long createdAtMillis;
+    private String scope;
+    private int testsServed;
+
+    PooledSession(WebDriver driver, String scope) {
+        this.driver = driver;
+        this.instrumentedDriver = new EventFiringDecorator<>(new CommandCounter()).decorate(driver);
+        this.scope = scope;
+        this.createdAtMillis = System.currentTimeMillis();
+    }
+
+    WebDriver getDriver() {
+        return driver;
+    }
+
+    WebDriver getInstrumentedDriver() {
+        return instrumentedDriver;
+    }
+
+    String getScope() {
+        return scope;
+    }
+
+    void setScope(String scope) {
+        this.scope = scope;
+    }
+
+    int getTestsServed() {
+        return testsServed;
+    }
+
+    void markLeased() {
+        testsServed++;
+    }
+
+    Duration getAge() {
+        return Duration.ofMillis(System.currentTimeMillis() - createdAtMillis);
+    }
+}
@@ -0,0 +1,29 @@
+package sabah.com.utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+public enum SessionReuseMode {
+    // Fresh browser for every test method
+    METHOD,
+    // Browser shared by the test methods of one class
+    CLASS,
+    // Browser shared by every test in the suite
+    SUITE,
+    // Browser recycled after session.reuse.max.tests tests
+    COUNT;
+
+    private static final Logger log = LogManager.getLogger(SessionReuseMode.class);
+
+    public static SessionReuseMode fromConfig(String value) {
+        if (value == null || value.isBlank()) {
+            return SUITE;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            log.warn("Unsupported session reuse mode: {}. Using suite as default.", value);
+            return SUITE;
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package sabah.com.utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.annotations.Test;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlInclude;
+import org.testng.xml.SuiteXmlParser;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import sabah.com.config.ConfigReader;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Splits a TestNG suite into N shards balanced by recorded test duration and runs each in its own JVM:
+//   mvn -Pshard test-compile exec:exec -Dshards=4
+public class ShardRunner {
+    private static final Logger log = LogManager.getLogger(ShardRunner.class);
+
+    private static final String[] RESULT_COUNTERS = {"total", "passed", "failed", "skipped", "ignored"};
+
+    // One test method of one <test> block; the unit that gets assigned to a shard
+    private record TestUnit(XmlSuite suite, XmlTest test, String className, String methodName, long expectedMillis) {
+    }
+
+    private static class Shard {
+        private final int index;
+        private final List<TestUnit> units = new ArrayList<>();
+        private long expectedMillis;
+
+        Shard(int index) {
+            this.index = index;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int shardCount = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        String suiteFile = args.length > 1 ? args[1] : "src/test/resources/testng.xml";
+        System.exit(run(shardCount, Paths.get(suiteFile)));
+    }
+
+    public static int run(int shardCount, Path suiteFile) throws Exception {
+        Path workDir = Paths.get(ConfigReader.getShardOutputDir());
+        Path historyFile = Paths.get(ConfigReader.getTestDurationsFile());
+        Map<String, Long> history = TestDurations.load(historyFile);
+
+        List<TestUnit> units = collectUnits(suiteFile, history);
+        List<Shard> shards = balance(units, Math.max(1, Math.min(shardCount, units.size())));
+        for (Shard shard : shards) {
+            log.info("Shard {}: {} test(s), expected {} s", shard.index, shard.units.size(), shard.expectedMillis / 1000.0);
+        }
+
+        // Browsers are shared out between the shard JVMs instead of each one sizing its pool for the whole machine
+        int poolSize = Math.max(1, ConfigReader.getDriverPoolSize() / shards.size());
+        long start = System.nanoTime();
+        List<Process> processes = new ArrayList<>();
+        for (Shard shard : shards) {
+            processes.add(launch(shard, workDir.resolve("shard-" + shard.index), poolSize));
+        }
+        int exitCode = 0;
+        for (int i = 0; i < processes.size(); i++) {
+            int shardExit = processes.get(i).waitFor();
+            log.info("Shard {} finished with exit code {}", shards.get(i).index, shardExit);
+            exitCode = Math.max(exitCode, shardExit);
+        }
+        log.info("All {} shard(s) finished in {} s", shards.size(), (System.nanoTime() - start) / 1_000_000_000.0);
+
+        Map<String, Long> recent = new HashMap<>();
+        for (Shard shard : shards) {
+            recent.putAll(TestDurations.load(workDir.resolve("shard-" + shard.index).resolve("durations.properties")));
+        }
+        TestDurations.save(historyFile, TestDurations.merge(history, recent));
+        mergeResults(shards, workDir);
+        return exitCode;
+    }
+
+    private static List<TestUnit> collectUnits(Path suiteFile, Map<String, Long> history) throws Exception {
+        // Tests never seen before are assumed to take as long as a typical known test
+        long fallbackMillis = history.isEmpty() ? 1000
+                : history.values().stream().sorted().skip(history.size() / 2).findFirst().orElse(1000L);
+
+        List<TestUnit> units = new ArrayList<>();
+        for (XmlSuite suite : parseSuites(suiteFile)) {
+            for (XmlTest test : suite.getTests()) {
+                for (XmlClass xmlClass : test.getXmlClasses()) {
+                    for (String methodName : testMethods(xmlClass)) {
+                        long expected = history.getOrDefault(TestDurations.key(xmlClass.getName(), methodName), fallbackMillis);
+                        units.add(new TestUnit(suite, test, xmlClass.getName(), methodName, expected));
+                    }
+                }
+            }
+        }
+        return units;
+    }
+
+    // The suite and every <suite-file> it points to, relative to the including file
+    private static List<XmlSuite> parseSuites(Path suiteFile) throws IOException {
+        XmlSuite suite;
+        try (InputStream in = Files.newInputStream(suiteFile)) {
+            suite = new SuiteXmlParser().parse(suiteFile.toString(), in, true);
+        }
+        List<XmlSuite> suites = new ArrayList<>();
+        if (!suite.getTests().isEmpty()) {
+            suites.add(suite);
+        }
+        for (String child : suite.getSuiteFiles()) {
+            suites.addAll(parseSuites(suiteFile.toAbsolutePath().getParent().resolve(child)));
+        }
+        return suites;
+    }
+
+    private static List<String> testMethods(XmlClass xmlClass) throws ClassNotFoundException {
+        if (!xmlClass.getIncludedMethods().isEmpty()) {
+            return xmlClass.getIncludedMethods().stream().map(XmlInclude::getName).toList();
+        }
+        Set<String> excluded = Set.copyOf(xmlClass.getExcludedMethods());
+        Class<?> testClass = Class.forName(xmlClass.getName());
+        boolean classLevelTest = testClass.isAnnotationPresent(Test.class);
+        List<String> methods = new ArrayList<>();
+        for (Method method : testClass.getMethods()) {
+            boolean isTest = method.isAnnotationPresent(Test.class)
+                    || (classLevelTest && method.getDeclaringClass() == testClass && !Modifier.isStatic(method.getModifiers()));
+            if (isTest && !excluded.contains(method.getName())) {
+                methods.add(method.getName());
+            }
+        }
+        methods.sort(null);
+        return methods;
+    }
+
+    // Longest processing time first: each test goes to the currently lightest shard
+    private static List<Shard> balance(List<TestUnit> units, int shardCount) {
+        List<Shard> shards = new ArrayList<>();
+        for (int i = 1; i <= shardCount; i++) {
+            shards.add(new Shard(i));
+        }
+        List<TestUnit> ordered = new ArrayList<>(units);
+        ordered.sort(Comparator.comparingLong(TestUnit::expectedMillis).reversed());
+        for (TestUnit unit : ordered) {
+            Shard lightest = shards.stream().min(Comparator.comparingLong(shard -> shard.expectedMillis)).orElseThrow();
+            lightest.units.add(unit);
+            lightest.expectedMillis += unit.expectedMillis();
+        }
+        return shards;
+    }
+
+    private static Process launch(Shard shard, Path shardDir, int poolSize) throws Exception {
+        // Results and durations left by an earlier run would otherwise be merged as this run's
+        deleteRecursively(shardDir);
+        Files.createDirectories(shardDir);
+        Path suiteXml = shardDir.resolve("testng.xml");
+        Files.writeString(suiteXml, toShardSuite(shard).toXml(), StandardCharsets.UTF_8);
+
+        // Each JVM writes logs, metrics and durations into its own directory
+        List<String> command = List.of(
+                Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+                "-cp", System.getProperty("java.class.path"),
+                "-Dtest.durations.file=" + shardDir.resolve("durations.properties"),
+                "-Dmetrics.output.dir=" + shardDir.resolve("metrics"),
+                "-Dlog.dir=" + shardDir.resolve("logs"),
+                "-Ddriver.pool.size=" + poolSize,
+                "org.testng.TestNG",
+                "-d", shardDir.resolve("testng-output").toString(),
+                suiteXml.toString());
+        return new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(shardDir.resolve("console.log").toFile())
+                .start();
+    }
+
+    private static void deleteRecursively(Path dir) throws IOException {
+        if (!Files.exists(dir)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    // Keeps the original suite and <test> settings (parallel mode, thread count, parameters, groups, method
+    // selectors, ordering and time-out); each <test> only includes this shard's methods
+    private static XmlSuite toShardSuite(Shard shard) {
+        XmlSuite source = shard.units.get(0).suite();
+        XmlSuite suite = new XmlSuite();
+        suite.setName(source.getName() + " [shard " + shard.index + "]");
+        suite.setParallel(source.getParallel());
+        suite.setThreadCount(source.getThreadCount());
+        suite.setDataProviderThreadCount(source.getDataProviderThreadCount());
+        suite.setParameters(source.getParameters());
+        suite.setListeners(new ArrayList<>(source.getListeners()));
+        suite.setGroups(source.getGroups());
+        suite.setMethodSelectors(source.getMethodSelectors());
+        suite.setPreserveOrder(source.getPreserveOrder());
+        suite.setConfigFailurePolicy(source.getConfigFailurePolicy());
+        suite.setTimeOut(source.getTimeOut());
+        suite.setVerbose(source.getVerbose());
+
+        Map<XmlTest, Map<String, List<TestUnit>>> grouped = shard.units.stream().collect(Collectors.groupingBy(
+                TestUnit::test, LinkedHashMap::new,
+                Collectors.groupingBy(TestUnit::className, LinkedHashMap::new, Collectors.toList())));
+        grouped.forEach((sourceTest, classes) -> {
+            XmlTest test = new XmlTest(suite);
+            test.setName(sourceTest.getName());
+            test.setParameters(sourceTest.getLocalParameters());
+            test.setParallel(sourceTest.getParallel());
+            test.setThreadCount(sourceTest.getThreadCount());
+            test.setGroups(sourceTest.getXmlGroups());
+            test.setMethodSelectors(sourceTest.getMethodSelectors());
+            test.setPreserveOrder(sourceTest.getPreserveOrder());
+            test.setGroupByInstances(sourceTest.getGroupByInstances());
+            if (sourceTest.getTimeOut() != null) {
+                test.setTimeOut(sourceTest.getTimeOut(XmlTest.DEFAULT_TIMEOUT_MS));
+            }
+            test.setVerbose(sourceTest.getVerbose());
+            List<XmlClass> xmlClasses = new ArrayList<>();
+            classes.forEach((className, classUnits) -> {
+                XmlClass xmlClass = new XmlClass(className, false);
+                xmlClass.setIncludedMethods(classUnits.stream().map(unit -> new XmlInclude(unit.methodName())).toList());
+                xmlClasses.add(xmlClass);
+            });
+            test.setXmlClasses(xmlClasses);
+        });
+        return suite;
+    }
+
+    // One testng-results.xml with every shard's <suite> and summed totals
+    private static void mergeResults(List<Shard> shards, Path workDir) throws Exception {
+        DocumentBuilder builder = DocumentBuilderFactory.newInstance().newDocumentBuilder();
+        Document merged = builder.newDocument();
+        Element root = merged.createElement("testng-results");
+        merged.appendChild(root);
+        Map<String, Long> totals = new LinkedHashMap<>();
+        for (String counter : RESULT_COUNTERS) {
+            totals.put(counter, 0L);
+        }
+
+        for (Shard shard : shards) {
+            File results = workDir.resolve("shard-" + shard.index).resolve("testng-output").resolve("testng-results.xml").toFile();
+            if (!results.isFile()) {
+                log.warn("Shard {} produced no results; see its console.log", shard.index);
+                continue;
+            }
+            Element shardRoot = builder.parse(results).getDocumentElement();
+            for (String counter : RESULT_COUNTERS) {
+                String value = shardRoot.getAttribute(counter);
+                if (!value.isEmpty()) {
+                    totals.merge(counter, Long.parseLong(value), Long::sum);
+                }
+            }
+            NodeList children = shardRoot.getChildNodes();
+            for (int i = 0; i < children.getLength(); i++) {
+                Node child = children.item(i);
+                if (child.getNodeType() == Node.ELEMENT_NODE && !"reporter-output".equals(child.getNodeName())) {
+                    root.appendChild(merged.importNode(child, true));
+                }
+            }
+        }
+        totals.forEach((counter, value) -> root.setAttribute(counter, String.valueOf(value)));
+
+        Path output = workDir.resolve("testng-results.xml");
+        Transformer transformer = TransformerFactory.newInstance().newTransformer();
+        transformer.setOutputProperty(OutputKeys.INDENT, "yes");
+        transformer.transform(new DOMSource(merged), new StreamResult(output.toFile()));
+        log.info("Merged results: {} total, {} passed, {} failed, {} skipped -> {}", totals.get("total"),
+                totals.get("passed"), totals.get("failed"), totals.get("skipped"), output.toAbsolutePath());
+    }
+}
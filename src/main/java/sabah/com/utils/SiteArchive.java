@@ -0,0 +1,144 @@
+package sabah.com.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+// Single-file snapshot of a site: response bodies back to back, then an index, then a fixed footer.
+// Replay maps the file read-only, so bodies are served straight from the page cache.
+class SiteArchive {
+    private static final int MAGIC = 0x53574132; // "SWA2"
+    private static final int FOOTER_BYTES = Long.BYTES + Integer.BYTES;
+
+    record Response(int status, String contentType, boolean gzip, byte[] body) {
+    }
+
+    private record Slot(int status, String contentType, boolean gzip, long offset, int length) {
+    }
+
+    private final MappedByteBuffer buffer;
+    private final Map<String, Slot> index;
+
+    private SiteArchive(MappedByteBuffer buffer, Map<String, Slot> index) {
+        this.buffer = buffer;
+        this.index = index;
+    }
+
+    static void write(Path file, Map<String, Response> responses) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try (DataOutputStream output = new DataOutputStream(Files.newOutputStream(temp))) {
+            Map<String, Slot> slots = new HashMap<>();
+            long offset = 0;
+            for (Map.Entry<String, Response> entry : responses.entrySet()) {
+                Response response = entry.getValue();
+                output.write(response.body());
+                slots.put(entry.getKey(), new Slot(response.status(), response.contentType(), response.gzip(),
+                        offset, response.body().length));
+                offset += response.body().length;
+            }
+
+            output.writeInt(slots.size());
+            for (Map.Entry<String, Slot> entry : slots.entrySet()) {
+                Slot slot = entry.getValue();
+                writeString(output, entry.getKey());
+                output.writeShort(slot.status());
+                writeString(output, slot.contentType());
+                output.writeBoolean(slot.gzip());
+                output.writeLong(slot.offset());
+                output.writeInt(slot.length());
+            }
+            output.writeLong(offset);
+            output.writeInt(MAGIC);
+        }
+        // Readers never see a half-written archive
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    static SiteArchive open(Path file) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        int size = buffer.capacity();
+        if (size < FOOTER_BYTES || buffer.getInt(size - Integer.BYTES) != MAGIC) {
+            throw new IOException("Not a site archive: " + file);
+        }
+        long indexOffset = buffer.getLong(size - FOOTER_BYTES);
+        byte[] indexBytes = new byte[(int) (size - FOOTER_BYTES - indexOffset)];
+        buffer.get((int) indexOffset, indexBytes);
+
+        Map<String, Slot> index = new HashMap<>();
+        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(indexBytes))) {
+            int count = input.readInt();
+            for (int i = 0; i < count; i++) {
+                String key = readString(input);
+                index.put(key, new Slot(input.readShort(), readString(input), input.readBoolean(),
+                        input.readLong(), input.readInt()));
+            }
+        }
+        return new SiteArchive(buffer, index);
+    }
+
+    // Length-prefixed UTF-8; writeUTF stops at 64 KB, and recorded URLs can be longer
+    private static void writeString(DataOutputStream output, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private static String readString(DataInputStream input) throws IOException {
+        byte[] bytes = new byte[input.readInt()];
+        input.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    int size() {
+        return index.size();
+    }
+
+    boolean contains(String key) {
+        return index.containsKey(key);
+    }
+
+    int getStatus(String key) {
+        return index.get(key).status();
+    }
+
+    String getContentType(String key) {
+        return index.get(key).contentType();
+    }
+
+    boolean isGzip(String key) {
+        return index.get(key).gzip();
+    }
+
+    int getLength(String key) {
+        return index.get(key).length();
+    }
+
+    // Streams the body to the client in chunks instead of copying it onto the heap whole
+    void writeBody(String key, OutputStream output) throws IOException {
+        Slot slot = index.get(key);
+        ByteBuffer body = buffer.slice((int) slot.offset(), slot.length());
+        byte[] chunk = new byte[Math.min(slot.length(), 64 * 1024)];
+        while (body.hasRemaining()) {
+            int length = Math.min(chunk.length, body.remaining());
+            body.get(chunk, 0, length);
+            output.write(chunk, 0, length);
+        }
+    }
+}
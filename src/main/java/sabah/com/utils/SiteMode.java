@@ -0,0 +1,27 @@
+package sabah.com.utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+public enum SiteMode {
+    // Tests hit base.url directly
+    LIVE,
+    // Tests go through a local proxy that saves every response to the site archive
+    RECORD,
+    // Tests are served from the site archive on localhost; nothing leaves the machine
+    REPLAY;
+
+    private static final Logger log = LogManager.getLogger(SiteMode.class);
+
+    public static SiteMode fromConfig(String value) {
+        if (value == null || value.isBlank()) {
+            return LIVE;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            log.warn("Unsupported site mode: {}. Using live as default.", value);
+            return LIVE;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package sabah.com.utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Elements;
+import org.jsoup.select.Evaluator;
+import org.jsoup.select.Selector;
+import org.openqa.selenium.By;
+import org.openqa.selenium.InvalidSelectorException;
+import sabah.com.config.ConfigReader;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Parsed pages for the static engine; each URL is fetched and parsed once per run
+public class StaticDocuments {
+    private static final Logger log = LogManager.getLogger(StaticDocuments.class);
+
+    private static final String USER_AGENT =
+            "Mozilla/5.0 (X11; Linux x86_64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/122.0 Safari/537.36";
+
+    private static final Map<String, Document> documents = new ConcurrentHashMap<>();
+
+    private static final HttpClient client = HttpClient.newBuilder()
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .connectTimeout(Duration.ofSeconds(ConfigReader.getPageLoadTimeout()))
+            .build();
+
+    // Documents are only read after parsing, so one instance is shared by every thread
+    public static Document get(String url) {
+        return documents.computeIfAbsent(url, StaticDocuments::load);
+    }
+
+    private static Document load(String url) {
+        long start = System.nanoTime();
+        String snapshotFile = ConfigReader.getStaticSnapshotFile();
+        try {
+            Document document;
+            if (!snapshotFile.isEmpty() && url.equals(LocalSite.resolveBaseUrl())) {
+                Path snapshot = Paths.get(snapshotFile);
+                document = Jsoup.parse(Files.readString(snapshot), url);
+            } else {
+                HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                        .timeout(Duration.ofSeconds(ConfigReader.getPageLoadTimeout()))
+                        .header("User-Agent", USER_AGENT)
+                        .header("Accept-Language", "tr-TR,tr;q=0.9")
+                        .build();
+                HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                if (response.statusCode() >= 400) {
+                    throw new IOException("HTTP " + response.statusCode());
+                }
+                document = Jsoup.parse(response.body(), response.uri().toString());
+            }
+            log.info("Parsed {} for static checks in {} ms", url, (System.nanoTime() - start) / 1_000_000);
+            return document;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to load page for static checks: " + url, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while loading page: " + url, e);
+        }
+    }
+
+    // Same locator semantics as the browser, resolved against the parsed DOM
+    public static Elements select(Document document, By locator) {
+        Map<String, Object> spec = LocatorScripts.toSpec(locator);
+        String value = (String) spec.get("value");
+        try {
+            return switch ((String) spec.get("using")) {
+                case "css selector" -> {
+                    Evaluator evaluator = LocatorValidator.getCssEvaluator(locator);
+                    yield evaluator != null ? document.select(evaluator) : document.select(value);
+                }
+                case "xpath" -> document.selectXpath(value);
+                case "tag name" -> document.getElementsByTag(value);
+                case "link text" -> filterLinks(document, value, true);
+                case "partial link text" -> filterLinks(document, value, false);
+                default -> throw new InvalidSelectorException("Unsupported locator strategy: " + locator);
+            };
+        } catch (Selector.SelectorParseException e) {
+            // Valid for browsers, but beyond jsoup's selector support
+            throw new InvalidSelectorException("Static engine cannot evaluate selector: " + e.getMessage() + " (" + locator + ")");
+        }
+    }
+
+    private static Elements filterLinks(Document document, String text, boolean exact) {
+        Elements links = new Elements();
+        for (Element link : document.getElementsByTag("a")) {
+            String linkText = link.text().trim();
+            if (exact ? linkText.equals(text) : linkText.contains(text)) {
+                links.add(link);
+            }
+        }
+        return links;
+    }
+
+    // Without layout only markup can hide an element: hidden attributes, inline styles, non-rendered containers
+    public static boolean isDisplayed(Element element) {
+        for (Element current = element; current != null; current = current.parent()) {
+            String tag = current.normalName();
+            if (tag.equals("head") || tag.equals("template") || tag.equals("noscript") || tag.equals("script")) {
+                return false;
+            }
+            if (current.hasAttr("hidden") || "hidden".equalsIgnoreCase(current.attr("type"))) {
+                return false;
+            }
+            String style = current.attr("style").replace(" ", "").toLowerCase(Locale.ROOT);
+            if (style.contains("display:none") || style.contains("visibility:hidden")) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Mirrors WebElement.getAttribute, which returns absolute URLs for link attributes
+    public static String getAttribute(Element element, String name) {
+        if (!element.hasAttr(name)) {
+            return null;
+        }
+        if (name.equals("href") || name.equals("src")) {
+            String absolute = element.absUrl(name);
+            return absolute.isEmpty() ? element.attr(name) : absolute;
+        }
+        return element.attr(name);
+    }
+}
@@ -0,0 +1,157 @@
+package sabah.com.utils;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.ThreadContext;
+import org.openqa.selenium.By;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.json.Json;
+import sabah.com.config.ConfigReader;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+public class StepMetrics {
+    private static final Logger log = LogManager.getLogger(StepMetrics.class);
+
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 1.0};
+
+    private static final Map<Key, Stats> stats = new ConcurrentHashMap<>();
+
+    private record Key(String operation, String locator, String test) {
+    }
+
+    private static class Stats {
+        // Microseconds, 3 significant digits, resizes as needed
+        private final Histogram latency = new ConcurrentHistogram(3);
+        private final LongAdder totalMicros = new LongAdder();
+        private final LongAdder commands = new LongAdder();
+        private final LongAdder timeouts = new LongAdder();
+    }
+
+    public static void time(String operation, By locator, Runnable action) {
+        time(operation, locator, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    public static <T> T time(String operation, By locator, Supplier<T> action) {
+        if (!ConfigReader.isMetricsEnabled()) {
+            return action.get();
+        }
+        long commandsBefore = CommandCounter.current();
+        long start = System.nanoTime();
+        boolean timedOut = false;
+        try {
+            return action.get();
+        } catch (TimeoutException e) {
+            timedOut = true;
+            throw e;
+        } finally {
+            long micros = (System.nanoTime() - start) / 1_000;
+            String test = ThreadContext.get("test");
+            Stats entry = stats.computeIfAbsent(
+                    new Key(operation, locator == null ? "" : locator.toString(), test == null ? "" : test),
+                    key -> new Stats());
+            entry.latency.recordValue(Math.max(micros, 1));
+            entry.totalMicros.add(micros);
+            entry.commands.add(CommandCounter.current() - commandsBefore);
+            if (timedOut) {
+                entry.timeouts.increment();
+            }
+        }
+    }
+
+    public static void export() {
+        if (!ConfigReader.isMetricsEnabled() || stats.isEmpty()) {
+            return;
+        }
+        Path outputDir = Paths.get(ConfigReader.getMetricsOutputDir());
+        List<Map<String, Object>> rows = toRows();
+        try {
+            Files.createDirectories(outputDir);
+            Files.writeString(outputDir.resolve("step-metrics.json"), new Json().toJson(rows), StandardCharsets.UTF_8);
+            Files.writeString(outputDir.resolve("step-metrics.prom"), toPrometheus(), StandardCharsets.UTF_8);
+            log.info("Step metrics for {} operation(s) written to {}", rows.size(), outputDir.toAbsolutePath());
+        } catch (IOException e) {
+            log.warn("Could not write step metrics: {}", e.getMessage());
+        }
+    }
+
+    // Slowest p99 first, so regressions surface at the top of the file
+    private static List<Map<String, Object>> toRows() {
+        List<Map.Entry<Key, Stats>> entries = new ArrayList<>(stats.entrySet());
+        entries.sort(Comparator.comparingLong((Map.Entry<Key, Stats> entry) ->
+                entry.getValue().latency.getValueAtPercentile(99)).reversed());
+
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Map.Entry<Key, Stats> entry : entries) {
+            Stats value = entry.getValue();
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("operation", entry.getKey().operation());
+            row.put("locator", entry.getKey().locator());
+            row.put("test", entry.getKey().test());
+            row.put("count", value.latency.getTotalCount());
+            row.put("p50Ms", value.latency.getValueAtPercentile(50) / 1000.0);
+            row.put("p90Ms", value.latency.getValueAtPercentile(90) / 1000.0);
+            row.put("p99Ms", value.latency.getValueAtPercentile(99) / 1000.0);
+            row.put("maxMs", value.latency.getMaxValue() / 1000.0);
+            row.put("totalMs", value.totalMicros.sum() / 1000.0);
+            row.put("webDriverCommands", value.commands.sum());
+            row.put("timeouts", value.timeouts.sum());
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    // Each metric family is written as one contiguous block, as the text format requires
+    private static String toPrometheus() {
+        Map<Key, String> labels = new LinkedHashMap<>();
+        stats.keySet().forEach(key -> labels.put(key, "operation=\"" + escape(key.operation())
+                + "\",locator=\"" + escape(key.locator()) + "\",test=\"" + escape(key.test()) + "\""));
+
+        StringBuilder out = new StringBuilder();
+        out.append("# HELP sabah_step_duration_seconds Latency of page-object and wait operations\n");
+        out.append("# TYPE sabah_step_duration_seconds summary\n");
+        labels.forEach((key, label) -> {
+            Stats value = stats.get(key);
+            for (double quantile : QUANTILES) {
+                out.append("sabah_step_duration_seconds{").append(label).append(",quantile=\"").append(quantile)
+                        .append("\"} ").append(value.latency.getValueAtPercentile(quantile * 100) / 1_000_000.0).append('\n');
+            }
+            out.append("sabah_step_duration_seconds_sum{").append(label).append("} ")
+                    .append(value.totalMicros.sum() / 1_000_000.0).append('\n');
+            out.append("sabah_step_duration_seconds_count{").append(label).append("} ")
+                    .append(value.latency.getTotalCount()).append('\n');
+        });
+
+        out.append("# HELP sabah_step_webdriver_commands_total WebDriver commands issued by the operation\n");
+        out.append("# TYPE sabah_step_webdriver_commands_total counter\n");
+        labels.forEach((key, label) -> out.append("sabah_step_webdriver_commands_total{").append(label).append("} ")
+                .append(stats.get(key).commands.sum()).append('\n'));
+
+        out.append("# HELP sabah_step_timeouts_total Operations that ended in a TimeoutException\n");
+        out.append("# TYPE sabah_step_timeouts_total counter\n");
+        labels.forEach((key, label) -> out.append("sabah_step_timeouts_total{").append(label).append("} ")
+                .append(stats.get(key).timeouts.sum()).append('\n'));
+        return out.toString();
+    }
+
+    private static String escape(String label) {
+        return label.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
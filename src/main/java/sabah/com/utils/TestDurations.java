@@ -0,0 +1,65 @@
+package sabah.com.utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+// Per-test wall time in ms, keyed by "class#method", kept between runs to balance shards
+public class TestDurations {
+    private static final Logger log = LogManager.getLogger(TestDurations.class);
+
+    public static String key(String className, String methodName) {
+        return className + "#" + methodName;
+    }
+
+    public static Map<String, Long> load(Path file) {
+        Map<String, Long> durations = new TreeMap<>();
+        if (!Files.isRegularFile(file)) {
+            return durations;
+        }
+        Properties properties = new Properties();
+        try (InputStream input = Files.newInputStream(file)) {
+            properties.load(input);
+        } catch (IOException e) {
+            log.warn("Could not read test durations from {}: {}", file, e.getMessage());
+            return durations;
+        }
+        for (String name : properties.stringPropertyNames()) {
+            try {
+                durations.put(name, Long.parseLong(properties.getProperty(name).trim()));
+            } catch (NumberFormatException e) {
+                log.debug("Ignoring malformed duration for {}", name);
+            }
+        }
+        return durations;
+    }
+
+    // Averages with the previous run so one slow outlier does not reshuffle every shard
+    public static Map<String, Long> merge(Map<String, Long> history, Map<String, Long> recent) {
+        Map<String, Long> merged = new TreeMap<>(history);
+        recent.forEach((test, millis) -> merged.merge(test, millis, (previous, latest) -> (previous + latest) / 2));
+        return merged;
+    }
+
+    public static void save(Path file, Map<String, Long> durations) {
+        Properties properties = new Properties();
+        durations.forEach((test, millis) -> properties.setProperty(test, String.valueOf(millis)));
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            try (OutputStream output = Files.newOutputStream(file)) {
+                properties.store(output, "Test durations in ms (class#method), used to balance suite shards");
+            }
+        } catch (IOException e) {
+            log.warn("Could not write test durations to {}: {}", file, e.getMessage());
+        }
+    }
+}
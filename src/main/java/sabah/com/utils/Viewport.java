@@ -0,0 +1,38 @@
+package sabah.com.utils;
+
+import sabah.com.config.ConfigReader;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// One entry of viewport.matrix: name:WIDTHxHEIGHT[@scale][:mobile]
+public record Viewport(String name, int width, int height, double deviceScaleFactor, boolean mobile) {
+
+    public static List<Viewport> fromConfig() {
+        List<Viewport> viewports = new ArrayList<>();
+        for (String entry : ConfigReader.getViewportMatrix()) {
+            viewports.add(parse(entry));
+        }
+        return List.copyOf(viewports);
+    }
+
+    static Viewport parse(String value) {
+        String[] parts = value.trim().split(":");
+        if (parts.length < 2 || parts.length > 3 || (parts.length == 3 && !"mobile".equalsIgnoreCase(parts[2].trim()))) {
+            throw new IllegalArgumentException("viewport.matrix entries must look like tablet:820x1180@2:mobile: " + value);
+        }
+        String size = parts[1].trim().toLowerCase();
+        double scale = 1;
+        int at = size.indexOf('@');
+        if (at >= 0) {
+            scale = Double.parseDouble(size.substring(at + 1));
+            size = size.substring(0, at);
+        }
+        String[] dimensions = size.split("x");
+        if (dimensions.length != 2) {
+            throw new IllegalArgumentException("viewport.matrix entries must look like tablet:820x1180@2:mobile: " + value);
+        }
+        return new Viewport(parts[0].trim(), Integer.parseInt(dimensions[0].trim()), Integer.parseInt(dimensions[1].trim()),
+                scale, parts.length == 3);
+    }
+}
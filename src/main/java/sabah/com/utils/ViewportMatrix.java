@@ -0,0 +1,112 @@
+package sabah.com.utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.ThreadContext;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.Rectangle;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WrapsDriver;
+import org.openqa.selenium.chromium.HasCdp;
+import org.openqa.selenium.json.Json;
+import sabah.com.config.ConfigReader;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+// Switches the viewport of a running browser through DevTools device emulation, so every profile
+// of the matrix reuses the same session; results are collected per viewport for the suite report
+public class ViewportMatrix {
+    private static final Logger log = LogManager.getLogger(ViewportMatrix.class);
+
+    private record Entry(String test, String viewport, String check, Map<String, Boolean> results, boolean passed) {
+    }
+
+    private static final ConcurrentLinkedQueue<Entry> entries = new ConcurrentLinkedQueue<>();
+
+    // Window position and size before the first resize, for browsers without DevTools; weak so quit drivers drop out
+    private static final Map<WebDriver, Rectangle> savedWindows = Collections.synchronizedMap(new WeakHashMap<>());
+
+    public static void emulate(WebDriver decorated, Viewport viewport) {
+        WebDriver driver = unwrap(decorated);
+        if (driver instanceof HasCdp cdp) {
+            cdp.executeCdpCommand("Emulation.setDeviceMetricsOverride", Map.of(
+                    "width", viewport.width(),
+                    "height", viewport.height(),
+                    "deviceScaleFactor", viewport.deviceScaleFactor(),
+                    "mobile", viewport.mobile()));
+            cdp.executeCdpCommand("Emulation.setTouchEmulationEnabled", Map.of("enabled", viewport.mobile()));
+        } else {
+            // Without DevTools only the window can change; no device scale or mobile layout rules
+            log.info("Device emulation needs Chrome or Edge; resizing the window for {} instead", viewport.name());
+            WebDriver.Window window = driver.manage().window();
+            savedWindows.computeIfAbsent(driver, d -> new Rectangle(window.getPosition(), window.getSize()));
+            window.setSize(new Dimension(viewport.width(), viewport.height()));
+        }
+        log.debug("Viewport set to {} ({}x{} @{}{})", viewport.name(), viewport.width(), viewport.height(),
+                viewport.deviceScaleFactor(), viewport.mobile() ? ", mobile" : "");
+    }
+
+    // Back to the window's own size; pooled sessions are cleared this way before the next test
+    public static void clear(WebDriver decorated) {
+        WebDriver driver = unwrap(decorated);
+        if (driver instanceof HasCdp cdp) {
+            cdp.executeCdpCommand("Emulation.clearDeviceMetricsOverride", Map.of());
+            cdp.executeCdpCommand("Emulation.setTouchEmulationEnabled", Map.of("enabled", false));
+            return;
+        }
+        Rectangle saved = savedWindows.remove(driver);
+        if (saved != null) {
+            driver.manage().window().setPosition(saved.getPoint());
+            driver.manage().window().setSize(saved.getDimension());
+        }
+    }
+
+    // Tests hold the instrumented driver and the pool the raw one; both must find the same saved window
+    private static WebDriver unwrap(WebDriver driver) {
+        while (driver instanceof WrapsDriver wrapper) {
+            driver = wrapper.getWrappedDriver();
+        }
+        return driver;
+    }
+
+    public static void record(Viewport viewport, String check, Map<String, Boolean> results, boolean passed) {
+        String test = ThreadContext.get("test");
+        entries.add(new Entry(test == null ? "" : test, viewport.name(), check, results, passed));
+    }
+
+    public static void export() {
+        if (entries.isEmpty()) {
+            return;
+        }
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Entry entry : entries) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("test", entry.test());
+            row.put("viewport", entry.viewport());
+            row.put("check", entry.check());
+            row.put("passed", entry.passed());
+            row.put("results", entry.results());
+            rows.add(row);
+        }
+
+        Path outputDir = Paths.get(ConfigReader.getMetricsOutputDir());
+        try {
+            Files.createDirectories(outputDir);
+            Files.writeString(outputDir.resolve("viewport-matrix.json"), new Json().toJson(rows), StandardCharsets.UTF_8);
+            log.info("Viewport matrix results for {} check(s) written to {}", rows.size(), outputDir.toAbsolutePath());
+        } catch (IOException e) {
+            log.warn("Could not write viewport matrix results: {}", e.getMessage());
+        }
+    }
+}
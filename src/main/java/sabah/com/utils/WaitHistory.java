@@ -0,0 +1,181 @@
+package sabah.com.utils;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.By;
+import sabah.com.config.ConfigReader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.DataFormatException;
+
+// How long each wait took, kept for the last wait.adaptive.window.runs runs that waited on it. Timeouts
+// are derived from the observed p99 so missing elements fail fast and slow ones get the time they actually
+// need. A timeout is kept as a sample at the timeout itself: the element needed at least that long, so
+// enough of them push p99 x factor past the old timeout, up to the ceiling.
+public class WaitHistory {
+    private static final Logger log = LogManager.getLogger(WaitHistory.class);
+
+    // Waits longer than this are not worth distinguishing
+    private static final long MAX_TRACKED_MS = 300_000;
+
+    // Everything known so far (history plus this run), used to pick timeouts
+    private static final Map<String, Histogram> observed = new ConcurrentHashMap<>();
+
+    // Only this run's samples; added to whatever is on disk at save time
+    private static final Map<String, Histogram> recorded = new ConcurrentHashMap<>();
+
+    static {
+        if (ConfigReader.isAdaptiveWaitEnabled()) {
+            load(Paths.get(ConfigReader.getWaitHistoryFile())).forEach((key, histogram) -> {
+                Histogram copy = new ConcurrentHistogram(MAX_TRACKED_MS, 2);
+                copy.add(histogram);
+                observed.put(key, copy);
+            });
+        }
+    }
+
+    public static String key(String condition, By locator) {
+        return locator == null ? condition : condition + "|" + locator;
+    }
+
+    // p99 x factor clamped to [floor, ceiling]; the configured default until enough samples exist
+    public static Duration timeoutFor(String key, Duration defaultTimeout) {
+        if (!ConfigReader.isAdaptiveWaitEnabled()) {
+            return defaultTimeout;
+        }
+        return adaptiveTimeout(observed.get(key), defaultTimeout, ConfigReader.getAdaptiveWaitMinSamples(),
+                ConfigReader.getAdaptiveWaitFactor(), ConfigReader.getAdaptiveWaitFloorMs(), ConfigReader.getAdaptiveWaitCeilingMs());
+    }
+
+    static Duration adaptiveTimeout(Histogram histogram, Duration defaultTimeout, int minSamples, double factor,
+                                    long floorMs, long ceilingMs) {
+        if (histogram == null || histogram.getTotalCount() < minSamples) {
+            return defaultTimeout;
+        }
+        long adaptiveMs = Math.round(histogram.getValueAtPercentile(99) * factor);
+        return Duration.ofMillis(Math.max(floorMs, Math.min(adaptiveMs, ceilingMs)));
+    }
+
+    // Called when a wait gave up after the given timeout
+    public static void recordTimeout(String key, Duration timeout) {
+        record(key, timeout);
+    }
+
+    public static void record(String key, Duration waited) {
+        if (!ConfigReader.isAdaptiveWaitEnabled()) {
+            return;
+        }
+        long millis = Math.max(0, Math.min(waited.toMillis(), MAX_TRACKED_MS));
+        observed.computeIfAbsent(key, k -> new ConcurrentHistogram(MAX_TRACKED_MS, 2)).recordValue(millis);
+        recorded.computeIfAbsent(key, k -> new ConcurrentHistogram(MAX_TRACKED_MS, 2)).recordValue(millis);
+    }
+
+    public static void save() {
+        if (!ConfigReader.isAdaptiveWaitEnabled() || recorded.isEmpty()) {
+            return;
+        }
+        Path file = Paths.get(ConfigReader.getWaitHistoryFile());
+        try {
+            int size = merge(file, recorded, ConfigReader.getAdaptiveWaitWindowRuns());
+            log.info("Wait history for {} locator(s) written to {}", size, file.toAbsolutePath());
+        } catch (IOException e) {
+            log.warn("Could not write wait history: {}", e.getMessage());
+        }
+    }
+
+    // Read, merge and write under an exclusive lock on <file>.lock, so parallel shard JVMs add to each
+    // other's samples instead of overwriting them. Each save adds one run per key and drops the oldest
+    // beyond windowRuns. Returns the number of keys written.
+    static synchronized int merge(Path file, Map<String, Histogram> samples, int windowRuns) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path lockFile = parent.resolve(file.getFileName() + ".lock");
+        try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            // Released when the channel closes
+            channel.lock();
+            Map<String, List<Histogram>> merged = loadRuns(file);
+            samples.forEach((key, histogram) -> {
+                List<Histogram> runs = merged.computeIfAbsent(key, k -> new ArrayList<>());
+                runs.add(histogram);
+                if (runs.size() > windowRuns) {
+                    runs.subList(0, runs.size() - windowRuns).clear();
+                }
+            });
+
+            Properties properties = new Properties();
+            merged.forEach((key, runs) -> {
+                List<String> encoded = new ArrayList<>();
+                for (Histogram histogram : runs) {
+                    ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+                    int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+                    encoded.add(Base64.getEncoder().encodeToString(Arrays.copyOf(buffer.array(), length)));
+                }
+                properties.setProperty(key, String.join(",", encoded));
+            });
+            Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+            try (OutputStream output = Files.newOutputStream(temp)) {
+                properties.store(output, "Observed wait durations per condition|locator, one compressed HdrHistogram (ms) per run, oldest first");
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return merged.size();
+        }
+    }
+
+    // All runs in the window added together
+    static Map<String, Histogram> load(Path file) {
+        Map<String, Histogram> histograms = new HashMap<>();
+        loadRuns(file).forEach((key, runs) -> {
+            Histogram total = new Histogram(MAX_TRACKED_MS, 2);
+            runs.forEach(total::add);
+            histograms.put(key, total);
+        });
+        return histograms;
+    }
+
+    static Map<String, List<Histogram>> loadRuns(Path file) {
+        Map<String, List<Histogram>> histograms = new HashMap<>();
+        if (!Files.isRegularFile(file)) {
+            return histograms;
+        }
+        Properties properties = new Properties();
+        try (InputStream input = Files.newInputStream(file)) {
+            properties.load(input);
+        } catch (IOException e) {
+            log.warn("Could not read wait history from {}: {}", file, e.getMessage());
+            return histograms;
+        }
+        for (String key : properties.stringPropertyNames()) {
+            try {
+                List<Histogram> runs = new ArrayList<>();
+                for (String run : properties.getProperty(key).split(",")) {
+                    ByteBuffer buffer = ByteBuffer.wrap(Base64.getDecoder().decode(run));
+                    runs.add(Histogram.decodeFromCompressedByteBuffer(buffer, MAX_TRACKED_MS));
+                }
+                histograms.put(key, runs);
+            } catch (IllegalArgumentException | DataFormatException e) {
+                log.debug("Ignoring unreadable wait history for {}", key);
+            }
+        }
+        return histograms;
+    }
+}
@@ -1,55 +1,77 @@
 package sabah.com.utils;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.openqa.selenium.*;
+import org.openqa.selenium.support.ui.ExpectedCondition;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 import sabah.com.config.ConfigReader;
 
 import java.time.Duration;
+import java.util.List;
+import java.util.Map;
 
 public class WaitUtils {
+    private static final Logger log = LogManager.getLogger(WaitUtils.class);
 
-    public static void waitForElementToBeVisible(WebDriver driver, By locator) {
+    public static WebElement waitForElementToBeVisible(WebDriver driver, By locator) {
         try {
-            WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(ConfigReader.getExplicitWait()));
-            wait.until(ExpectedConditions.visibilityOfElementLocated(locator));
-            System.out.println("Element is visible: " + locator);
+            WebElement element = StepMetrics.time("waitForElementToBeVisible", locator, () ->
+                    awaitElement(driver, locator, "visible", ExpectedConditions.visibilityOfElementLocated(locator)));
+            log.debug("Element is visible: {}", locator);
+            return element;
         } catch (TimeoutException e) {
-            System.err.println("Element not visible within timeout: " + locator);
+            log.debug("Element not visible within timeout: {}", locator);
             throw e;
         }
     }
 
-    public static void waitForElementToBeClickable(WebDriver driver, By locator) {
+    public static WebElement waitForElementToBeClickable(WebDriver driver, By locator) {
         try {
-            WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(ConfigReader.getExplicitWait()));
-            wait.until(ExpectedConditions.elementToBeClickable(locator));
-            System.out.println("Element is clickable: " + locator);
+            WebElement element = StepMetrics.time("waitForElementToBeClickable", locator, () ->
+                    awaitElement(driver, locator, "clickable", ExpectedConditions.elementToBeClickable(locator)));
+            log.debug("Element is clickable: {}", locator);
+            return element;
         } catch (TimeoutException e) {
-            System.err.println("Element not clickable within timeout: " + locator);
+            log.debug("Element not clickable within timeout: {}", locator);
             throw e;
         }
     }
 
-    public static void waitForElementToBePresent(WebDriver driver, By locator) {
+    public static WebElement waitForElementToBePresent(WebDriver driver, By locator) {
         try {
-            WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(ConfigReader.getExplicitWait()));
-            wait.until(ExpectedConditions.presenceOfElementLocated(locator));
-            System.out.println("Element is present: " + locator);
+            WebElement element = StepMetrics.time("waitForElementToBePresent", locator, () ->
+                    awaitElement(driver, locator, "present", ExpectedConditions.presenceOfElementLocated(locator)));
+            log.debug("Element is present: {}", locator);
+            return element;
         } catch (TimeoutException e) {
-            System.err.println("Element not present within timeout: " + locator);
+            log.debug("Element not present within timeout: {}", locator);
             throw e;
         }
     }
 
     public static void waitForPageToLoad(WebDriver driver) {
+        // Eager and none page load strategies only need the DOM, not every subresource
+        boolean domReadyIsEnough = DriverManager.getLaunchProfile().getPageLoadStrategy() != PageLoadStrategy.NORMAL;
+        String historyKey = WaitHistory.key(domReadyIsEnough ? "domReady" : "pageLoad", null);
+        Duration timeout = WaitHistory.timeoutFor(historyKey, Duration.ofSeconds(ConfigReader.getPageLoadTimeout()));
         try {
-            WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(ConfigReader.getPageLoadTimeout()));
-            wait.until(webDriver -> ((JavascriptExecutor) webDriver)
-                    .executeScript("return document.readyState").equals("complete"));
-            System.out.println("Page loaded successfully");
+            StepMetrics.time("waitForPageToLoad", null, () -> {
+                long start = System.nanoTime();
+                if (!awaitReadyState(driver, domReadyIsEnough, timeout)) {
+                    WebDriverWait wait = new WebDriverWait(driver, timeout);
+                    wait.until(webDriver -> {
+                        Object readyState = ((JavascriptExecutor) webDriver).executeScript("return document.readyState");
+                        return "complete".equals(readyState) || (domReadyIsEnough && "interactive".equals(readyState));
+                    });
+                }
+                WaitHistory.record(historyKey, Duration.ofNanos(System.nanoTime() - start));
+            });
+            log.debug("Page loaded successfully");
         } catch (TimeoutException e) {
-            System.err.println("Page did not load within timeout");
+            log.warn("Page did not load within timeout");
+            WaitHistory.recordTimeout(historyKey, timeout);
             throw e;
         }
     }
@@ -57,10 +79,10 @@ public class WaitUtils {
     public static void waitForUrlToContain(WebDriver driver, String partialUrl) {
         try {
             WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(ConfigReader.getExplicitWait()));
-            wait.until(ExpectedConditions.urlContains(partialUrl));
-            System.out.println("URL contains: " + partialUrl);
+            StepMetrics.time("waitForUrlToContain", null, () -> wait.until(ExpectedConditions.urlContains(partialUrl)));
+            log.debug("URL contains: {}", partialUrl);
         } catch (TimeoutException e) {
-            System.err.println("URL does not contain expected text within timeout: " + partialUrl);
+            log.warn("URL does not contain expected text within timeout: {}", partialUrl);
             throw e;
         }
     }
@@ -68,20 +90,116 @@ public class WaitUtils {
     public static void waitForTitleToContain(WebDriver driver, String partialTitle) {
         try {
             WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(ConfigReader.getExplicitWait()));
-            wait.until(ExpectedConditions.titleContains(partialTitle));
-            System.out.println("Title contains: " + partialTitle);
+            StepMetrics.time("waitForTitleToContain", null, () -> wait.until(ExpectedConditions.titleContains(partialTitle)));
+            log.debug("Title contains: {}", partialTitle);
+        } catch (TimeoutException e) {
+            log.warn("Title does not contain expected text within timeout: {}", partialTitle);
+            throw e;
+        }
+    }
+
+    // Waits until every spec is displayed, has an invalid selector or is marked noWait; returns the last probe either way
+    public static List<?> waitForProbeToSettle(WebDriver driver, List<Map<String, Object>> specs) {
+        return StepMetrics.time("waitForProbeToSettle", null, () -> probeUntilSettled(driver, specs));
+    }
+
+    private static List<?> probeUntilSettled(WebDriver driver, List<Map<String, Object>> specs) {
+        Duration timeout = Duration.ofSeconds(ConfigReader.getExplicitWait());
+        if (ConfigReader.isEventDrivenWaitEnabled()) {
+            try {
+                Object result = ((JavascriptExecutor) driver).executeAsyncScript(
+                        LocatorScripts.AWAIT_PROBE_ALL_SCRIPT, specs, timeout.toMillis());
+                Map<?, ?> outcome = (Map<?, ?>) result;
+                if (Boolean.TRUE.equals(outcome.get("timedOut"))) {
+                    log.debug("Not all elements visible within timeout, reporting last probe");
+                }
+                return (List<?>) outcome.get("value");
+            } catch (JavascriptException | UnsupportedCommandException | ScriptTimeoutException e) {
+                log.info("Event-driven wait unavailable, polling instead: {}", e.getMessage());
+            }
+        }
+
+        List<?>[] lastProbe = new List<?>[]{List.of()};
+        try {
+            new WebDriverWait(driver, timeout).until(webDriver -> {
+                lastProbe[0] = (List<?>) ((JavascriptExecutor) webDriver).executeScript(LocatorScripts.PROBE_ALL_SCRIPT, specs);
+                return lastProbe[0].stream().allMatch(WaitUtils::isSettled);
+            });
+        } catch (TimeoutException e) {
+            log.debug("Not all elements visible within timeout, reporting last probe");
+        }
+        return lastProbe[0];
+    }
+
+    private static boolean isSettled(Object entry) {
+        Map<?, ?> map = (Map<?, ?>) entry;
+        return Boolean.TRUE.equals(map.get("displayed")) || map.get("error") != null || Boolean.TRUE.equals(map.get("noWait"));
+    }
+
+    // One executeAsyncScript call resolved in-page by a MutationObserver; falls back to polling
+    // when the browser cannot run async scripts or the page navigates away mid-wait
+    private static WebElement awaitElement(WebDriver driver, By locator, String condition,
+                                           ExpectedCondition<WebElement> fallback) {
+        LocatorValidator.requireValid(locator);
+        String historyKey = WaitHistory.key(condition, locator);
+        Duration timeout = WaitHistory.timeoutFor(historyKey, Duration.ofSeconds(ConfigReader.getExplicitWait()));
+        long start = System.nanoTime();
+        WebElement element;
+        try {
+            element = resolveElement(driver, locator, condition, fallback, timeout);
         } catch (TimeoutException e) {
-            System.err.println("Title does not contain expected text within timeout: " + partialTitle);
+            WaitHistory.recordTimeout(historyKey, timeout);
             throw e;
         }
+        WaitHistory.record(historyKey, Duration.ofNanos(System.nanoTime() - start));
+        return element;
+    }
+
+    private static WebElement resolveElement(WebDriver driver, By locator, String condition,
+                                             ExpectedCondition<WebElement> fallback, Duration timeout) {
+        if (ConfigReader.isEventDrivenWaitEnabled() && locator instanceof By.Remotable) {
+            try {
+                Object result = ((JavascriptExecutor) driver).executeAsyncScript(
+                        LocatorScripts.AWAIT_ELEMENT_SCRIPT, LocatorScripts.toSpec(locator), condition, timeout.toMillis());
+                Map<?, ?> outcome = (Map<?, ?>) result;
+                Object value = outcome.get("value");
+                if (value instanceof WebElement) {
+                    return (WebElement) value;
+                }
+                if (value instanceof Map<?, ?> error && error.get("error") != null) {
+                    throw new InvalidSelectorException(error.get("error") + " (" + locator + ")");
+                }
+                throw new TimeoutException("Expected condition failed: waiting for element located by " + locator
+                        + " to be " + condition + " (tried for " + timeout.toMillis() + " ms)");
+            } catch (JavascriptException | UnsupportedCommandException | ScriptTimeoutException e) {
+                log.info("Event-driven wait unavailable, polling instead: {}", e.getMessage());
+            }
+        }
+        return new WebDriverWait(driver, timeout).until(fallback);
+    }
+
+    private static boolean awaitReadyState(WebDriver driver, boolean acceptInteractive, Duration timeout) {
+        if (!ConfigReader.isEventDrivenWaitEnabled()) {
+            return false;
+        }
+        try {
+            Object ready = ((JavascriptExecutor) driver).executeAsyncScript(
+                    LocatorScripts.AWAIT_READY_STATE_SCRIPT, acceptInteractive, timeout.toMillis());
+            if (!Boolean.TRUE.equals(ready)) {
+                throw new TimeoutException("Page did not reach ready state within " + timeout.toMillis() + " ms");
+            }
+            return true;
+        } catch (JavascriptException | UnsupportedCommandException | ScriptTimeoutException e) {
+            return false;
+        }
     }
 
     public static void sleep(int seconds) {
         try {
             Thread.sleep(seconds * 1000L);
-            System.out.println("Slept for " + seconds + " seconds");
+            log.debug("Slept for {} seconds", seconds);
         } catch (InterruptedException e) {
-            System.err.println("Sleep interrupted: " + e.getMessage());
+            log.warn("Sleep interrupted: {}", e.getMessage());
             Thread.currentThread().interrupt();
         }
     }
@@ -0,0 +1,90 @@
+package sabah.com.config;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Map;
+import java.util.Properties;
+
+// Lives next to ConfigSnapshot because the layering entry point is package-private
+public class ConfigSnapshotTest {
+
+    private static Properties file() {
+        Properties properties = new Properties();
+        properties.setProperty("base.url", "https://file.example");
+        properties.setProperty("browser", "chrome");
+        properties.setProperty("implicit.wait", "0");
+        properties.setProperty("explicit.wait", "3");
+        properties.setProperty("page.load.timeout", "5");
+        return properties;
+    }
+
+    private static Properties system(String... keyValues) {
+        Properties properties = new Properties();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            properties.setProperty(keyValues[i], keyValues[i + 1]);
+        }
+        return properties;
+    }
+
+    @Test
+    public void fileValuesApplyWithoutOverrides() {
+        ConfigSnapshot snapshot = ConfigSnapshot.of(file(), Map.of(), system());
+        Assert.assertEquals(snapshot.baseUrl(), "https://file.example");
+        Assert.assertEquals(snapshot.explicitWait(), 3);
+    }
+
+    @Test
+    public void prefixedEnvironmentOverridesFile() {
+        ConfigSnapshot snapshot = ConfigSnapshot.of(file(), Map.of("SABAH_BASE_URL", "https://env.example"), system());
+        Assert.assertEquals(snapshot.baseUrl(), "https://env.example");
+    }
+
+    @Test
+    public void bareEnvironmentNamesAreIgnored() {
+        ConfigSnapshot snapshot = ConfigSnapshot.of(file(), Map.of("BROWSER", "firefox", "BASE_URL", "https://env.example"), system());
+        Assert.assertEquals(snapshot.browser(), "chrome");
+        Assert.assertEquals(snapshot.baseUrl(), "https://file.example");
+    }
+
+    @Test
+    public void systemPropertyOverridesEnvironment() {
+        ConfigSnapshot snapshot = ConfigSnapshot.of(file(), Map.of("SABAH_BROWSER", "edge"), system("browser", "firefox"));
+        Assert.assertEquals(snapshot.browser(), "firefox");
+    }
+
+    @Test
+    public void undeclaredSystemPropertiesAreIgnored() {
+        ConfigSnapshot snapshot = ConfigSnapshot.of(file(), Map.of(), system("java.vendor", "x", "driver.path.chrome", "/opt/chromedriver"));
+        Assert.assertFalse(snapshot.contains("java.vendor"));
+        Assert.assertFalse(snapshot.contains("driver.path.chrome"));
+    }
+
+    @Test
+    public void prefixedSystemPropertySetsAnyKeyAndWins() {
+        ConfigSnapshot snapshot = ConfigSnapshot.of(file(), Map.of("SABAH_BROWSER", "edge"),
+                system("browser", "firefox", "sabah.browser", "safari", "sabah.driver.path.chrome", "/opt/chromedriver"));
+        Assert.assertEquals(snapshot.browser(), "safari");
+        Assert.assertEquals(snapshot.getString("driver.path.chrome", ""), "/opt/chromedriver");
+    }
+
+    @Test
+    public void hotPathValuesAreParsedUpFront() {
+        Properties properties = file();
+        properties.setProperty("driver.pool.size", "0");
+        properties.setProperty("performance.capture", "true");
+        properties.setProperty("performance.budget.lcp.ms", "2500");
+        ConfigSnapshot snapshot = ConfigSnapshot.of(properties, Map.of(), system("sabah.performance.budget.cls", "0.1"));
+        Assert.assertEquals(snapshot.driverPoolSize(), Runtime.getRuntime().availableProcessors());
+        Assert.assertTrue(snapshot.performanceCapture());
+        Assert.assertEquals(snapshot.performanceBudgets(), Map.of("lcp.ms", 2500.0, "cls", 0.1));
+        Assert.assertEquals(snapshot.flakyMaxRetries(), 2);
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void malformedHotPathValueFailsTheSnapshot() {
+        Properties properties = file();
+        properties.setProperty("driver.pool.size", "many");
+        ConfigSnapshot.of(properties, Map.of(), system());
+    }
+}
@@ -0,0 +1,119 @@
+package sabah.com.listeners;
+
+import org.testng.Assert;
+import org.testng.ITestResult;
+import org.testng.TestListenerAdapter;
+import org.testng.TestNG;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import sabah.com.utils.FlakinessStore;
+import sabah.com.utils.TestDurations;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Scores, retries and quarantine against a synthetic results log, with a nested TestNG run for the listener.
+// Everything goes through a store of its own, so the shared results log and metrics are never touched.
+public class FlakinessListenerTest {
+
+    private final List<String> lines = new ArrayList<>();
+    private Path historyFile;
+    private Path outputDir;
+    private FlakinessStore store;
+
+    private static String key(String method) {
+        return TestDurations.key(FlakySample.class.getName(), method);
+    }
+
+    // One line per attempt; attempts of one run share the run id
+    private void addRun(String test, int run, String... attempts) {
+        for (int i = 0; i < attempts.length; i++) {
+            lines.add(String.join("\t", "run-" + run, "0", test, attempts[i], String.valueOf(i + 1), "10", ""));
+        }
+    }
+
+    @BeforeClass
+    public void writeHistory() throws IOException {
+        for (int run = 0; run < 10; run++) {
+            addRun("stable#test", run, "PASS");
+            addRun("alwaysFails#test", run, "FAIL");
+            // 2 of 10 runs needed a retry: 0.2, flaky but below the quarantine threshold
+            if (run < 2) {
+                addRun(key("passesOnRetry"), run, "FAIL", "PASS");
+            } else {
+                addRun(key("passesOnRetry"), run, "PASS");
+            }
+            // Flips between every run: 0.9
+            addRun(key("quarantined"), run, run % 2 == 0 ? "PASS" : "FAIL");
+            addRun(key("broken"), run, "FAIL");
+            addRun("skipped#test", run, run % 2 == 0 ? "PASS" : "SKIP");
+        }
+        for (int run = 0; run < 3; run++) {
+            addRun("fewRuns#test", run, run % 2 == 0 ? "PASS" : "FAIL");
+        }
+        // Flaky long ago, stable for the whole window since
+        for (int run = 0; run < 30; run++) {
+            addRun("recovered#test", run, run < 10 && run % 2 == 0 ? "FAIL" : "PASS");
+        }
+        Path dir = Files.createTempDirectory("flakiness");
+        historyFile = dir.resolve("results.log");
+        outputDir = dir.resolve("metrics");
+        Files.write(historyFile, lines, StandardCharsets.UTF_8);
+        store = new FlakinessStore(historyFile, outputDir);
+    }
+
+    @Test
+    public void scoresRetriesAndFlipsOverTheWindow() {
+        Assert.assertEquals(store.getScore("stable#test"), 0.0);
+        Assert.assertEquals(store.getScore("alwaysFails#test"), 0.0, "always failing is broken, not flaky");
+        Assert.assertEquals(store.getScore(key("passesOnRetry")), 0.2, 1e-9);
+        Assert.assertEquals(store.getScore(key("quarantined")), 0.9, 1e-9);
+        Assert.assertEquals(store.getScore("skipped#test"), 0.0, "skipped runs are not flips");
+        Assert.assertEquals(store.getScore("fewRuns#test"), 0.0, "below flaky.min.runs");
+        Assert.assertEquals(store.getScore("recovered#test"), 0.0, "flips outside flaky.window.runs");
+    }
+
+    @Test
+    public void thresholdsPickRetryAndQuarantine() {
+        Assert.assertTrue(store.isFlaky(key("passesOnRetry")));
+        Assert.assertFalse(store.isQuarantined(key("passesOnRetry")));
+        Assert.assertTrue(store.isQuarantined(key("quarantined")));
+        Assert.assertFalse(store.isFlaky(key("broken")));
+    }
+
+    @Test(dependsOnMethods = {"scoresRetriesAndFlipsOverTheWindow", "thresholdsPickRetryAndQuarantine"})
+    public void retriesFlakyAndSkipsQuarantinedFailures() throws IOException {
+        TestListenerAdapter results = new TestListenerAdapter();
+        TestNG testng = new TestNG(false);
+        testng.setVerbose(0);
+        testng.setTestClasses(new Class<?>[]{FlakySample.Inherited.class});
+        testng.addListener(new FlakinessListener(store));
+        testng.addListener(results);
+        testng.run();
+
+        Assert.assertEquals(names(results.getPassedTests()), Set.of("passesOnRetry"), "flaky test should pass on retry");
+        Assert.assertEquals(names(results.getFailedTests()), Set.of("broken"), "broken test should still fail");
+        Assert.assertEquals(FlakySample.brokenCalls.get(), 1, "broken test is not flaky, so it is not retried");
+        Assert.assertEquals(FlakySample.flakyCalls.get(), 2, "flaky test should run twice");
+        Assert.assertTrue(names(results.getSkippedTests()).contains("quarantined"),
+                "quarantined failure should be reported as a skip");
+
+        // Every attempt is appended to the log, the quarantined one as the failure it was
+        List<String> logged = Files.readAllLines(historyFile, StandardCharsets.UTF_8);
+        List<String> appended = logged.subList(lines.size(), logged.size());
+        Assert.assertTrue(appended.stream().anyMatch(line -> line.contains(key("passesOnRetry") + "\tFAIL\t1")), appended.toString());
+        Assert.assertTrue(appended.stream().anyMatch(line -> line.contains(key("passesOnRetry") + "\tPASS\t2")), appended.toString());
+        Assert.assertTrue(appended.stream().anyMatch(line -> line.contains(key("quarantined") + "\tFAIL\t1")), appended.toString());
+        Assert.assertTrue(Files.isRegularFile(outputDir.resolve("flakiness.json")), "scores go to the store's own directory");
+    }
+
+    private static Set<String> names(List<ITestResult> results) {
+        return results.stream().map(result -> result.getMethod().getMethodName()).collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,33 @@
+package sabah.com.listeners;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Run only by the nested TestNG run in FlakinessListenerTest; the synthetic history decides which of
+// these get retried or quarantined. Not named *Test, so Surefire never picks it up on its own.
+public class FlakySample {
+    static final AtomicInteger flakyCalls = new AtomicInteger();
+    static final AtomicInteger brokenCalls = new AtomicInteger();
+
+    @Test
+    public void passesOnRetry() {
+        Assert.assertTrue(flakyCalls.incrementAndGet() > 1, "first attempt fails");
+    }
+
+    @Test
+    public void quarantined() {
+        Assert.fail("fails every time");
+    }
+
+    @Test
+    public void broken() {
+        brokenCalls.incrementAndGet();
+        Assert.fail("broken");
+    }
+
+    // Inherits the tests; they keep the history of the declaring class
+    public static class Inherited extends FlakySample {
+    }
+}
@@ -0,0 +1,58 @@
+package sabah.com.pages;
+
+import org.openqa.selenium.By;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import sabah.com.utils.Viewport;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Next to NavigationCatalog because parse is package-private
+public class NavigationCatalogTest {
+    private static final Viewport DESKTOP = new Viewport("desktop", 1920, 1080, 1, false);
+    private static final Viewport MOBILE = new Viewport("mobile", 390, 844, 3, true);
+
+    @Test
+    public void viewportSuffixLimitsWhereAnEntryIsExpected() {
+        Map<String, List<NavigationCatalog.Entry>> sections = NavigationCatalog.parse(List.of(
+                "# comment",
+                "header | Header | header.header",
+                "header | Main navigation [desktop, tablet] | nav.menu",
+                "header | Search | xpath://form[@role='search']"));
+        List<NavigationCatalog.Entry> header = sections.get("header");
+
+        Assert.assertEquals(header.get(0).viewports(), Set.of());
+        Assert.assertTrue(header.get(0).isExpectedAt(MOBILE));
+        Assert.assertEquals(header.get(1).label(), "Main navigation");
+        Assert.assertEquals(header.get(1).viewports(), Set.of("desktop", "tablet"));
+        Assert.assertTrue(header.get(1).isExpectedAt(DESKTOP));
+        Assert.assertFalse(header.get(1).isExpectedAt(MOBILE));
+        Assert.assertTrue(header.get(1).isExpectedAt(null), "without a viewport every entry is expected");
+        Assert.assertEquals(header.get(2).locator(), By.xpath("//form[@role='search']"));
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void emptyViewportListIsRejected() {
+        NavigationCatalog.parse(List.of("header | Main navigation [] | nav.menu"));
+    }
+
+    @Test
+    public void entriesHiddenByDesignAreNotMissing() {
+        SectionResult result = new SectionResult("header",
+                Map.of("Header", new Visibility(true, true, null, null), "Main navigation", Visibility.ABSENT),
+                Set.of("Main navigation"));
+        Assert.assertTrue(result.allDisplayed());
+        Assert.assertEquals(result.missing(), List.of());
+    }
+
+    @Test
+    public void bundledCatalogMarksTheDesktopOnlyMenu() {
+        NavigationCatalog.Entry mainNavigation = NavigationCatalog.getSection(SabahHomePage.HEADER_SECTION).stream()
+                .filter(entry -> entry.label().equals("Main navigation")).findFirst().orElseThrow();
+        Assert.assertFalse(mainNavigation.isExpectedAt(MOBILE));
+        Assert.assertTrue(NavigationCatalog.getSection(SabahHomePage.MAIN_NAVIGATION_SECTION).stream()
+                .allMatch(entry -> entry.viewports().equals(Set.of("desktop"))));
+    }
+}
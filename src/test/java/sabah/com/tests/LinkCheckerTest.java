@@ -0,0 +1,151 @@
+package sabah.com.tests;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import sabah.com.config.ConfigReader;
+import sabah.com.pages.Engine;
+import sabah.com.pages.PageEngine;
+import sabah.com.pages.SabahHomePage;
+import sabah.com.utils.LinkChecker;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Runs against a local stand-in server, so it needs neither a browser nor the public site
+public class LinkCheckerTest {
+    private static final Logger log = LogManager.getLogger(LinkCheckerTest.class);
+
+    private final AtomicInteger countedHits = new AtomicInteger();
+    private final AtomicInteger slowInFlight = new AtomicInteger();
+    private final AtomicInteger slowMaxInFlight = new AtomicInteger();
+
+    private HttpServer server;
+    private String baseUrl;
+
+    @BeforeClass
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/page", LinkCheckerTest::respondWithPage);
+        server.createContext("/ok", exchange -> respond(exchange, 200, null));
+        server.createContext("/moved", exchange -> respond(exchange, 301, "/ok"));
+        server.createContext("/chain", exchange -> respond(exchange, 302, "/moved"));
+        server.createContext("/loop", exchange -> respond(exchange, 302, "/loop"));
+        server.createContext("/missing", exchange -> respond(exchange, 404, null));
+        server.createContext("/get-only", exchange ->
+                respond(exchange, "HEAD".equals(exchange.getRequestMethod()) ? 405 : 200, null));
+        server.createContext("/counted", exchange -> {
+            countedHits.incrementAndGet();
+            respond(exchange, 200, null);
+        });
+        server.createContext("/slow", exchange -> {
+            slowMaxInFlight.accumulateAndGet(slowInFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            slowInFlight.decrementAndGet();
+            respond(exchange, 200, null);
+        });
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.start();
+        baseUrl = "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    private static void respond(HttpExchange exchange, int status, String location) throws IOException {
+        if (location != null) {
+            exchange.getResponseHeaders().set("Location", location);
+        }
+        exchange.sendResponseHeaders(status, -1);
+        exchange.close();
+    }
+
+    // Relative, absolute, duplicate and non-HTTP links, as a menu page would mix them
+    private static void respondWithPage(HttpExchange exchange) throws IOException {
+        String base = "http://" + exchange.getLocalAddress().getHostString() + ":" + exchange.getLocalAddress().getPort();
+        byte[] body = ("<html><head><title>Links</title></head><body><nav>"
+                + "<a href=\"/ok\">Ok</a><a href=\"" + base + "/missing\">Missing</a>"
+                + "<a href=\"/ok#top\">Ok again</a><a href=\"chain\">Chain</a>"
+                + "<a href=\"mailto:news@example.com\">Mail</a><a href=\"javascript:void(0)\">Menu</a><a>No href</a>"
+                + "</nav></body></html>").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/html; charset=utf-8");
+        exchange.sendResponseHeaders(200, body.length);
+        exchange.getResponseBody().write(body);
+        exchange.close();
+    }
+
+    @Test(description = "Verify page links are collected and checked with the static engine")
+    @Engine(PageEngine.STATIC)
+    public void testCollectAndCheckPageLinks() {
+        SabahHomePage page = new SabahHomePage();
+        page.navigateTo(baseUrl + "/page");
+
+        List<String> links = page.collectLinks();
+        Assert.assertEquals(links, List.of(baseUrl + "/ok", baseUrl + "/missing", baseUrl + "/chain"),
+                "Only HTTP links should be collected, resolved and without duplicates");
+
+        List<LinkChecker.LinkResult> results = page.checkLinkHealth();
+        Assert.assertEquals(results.size(), 3, "Every collected link should be checked");
+        Assert.assertEquals(results.stream().filter(LinkChecker.LinkResult::isBroken).map(LinkChecker.LinkResult::url).toList(),
+                List.of(baseUrl + "/missing"), "Only the 404 link should be broken");
+    }
+
+    @Test(description = "Verify status codes and redirect chains are reported per link")
+    public void testStatusesAndRedirectChains() {
+        List<LinkChecker.LinkResult> results = LinkChecker.check(List.of(
+                baseUrl + "/ok", baseUrl + "/chain", baseUrl + "/missing", baseUrl + "/get-only", baseUrl + "/loop"));
+        results.forEach(result -> log.info("{} -> {} via {}", result.url(), result.status(), result.redirects()));
+
+        Assert.assertEquals(results.get(0).status(), 200, "Plain link should be 200");
+        Assert.assertFalse(results.get(0).isBroken(), "Plain link should be healthy");
+
+        LinkChecker.LinkResult chain = results.get(1);
+        Assert.assertEquals(chain.status(), 200, "Redirect chain should end in 200");
+        Assert.assertEquals(chain.finalUrl(), baseUrl + "/ok", "Redirect chain should end at /ok");
+        Assert.assertEquals(chain.redirects(), List.of("302 " + baseUrl + "/chain", "301 " + baseUrl + "/moved"),
+                "Every redirect hop should be recorded");
+
+        Assert.assertTrue(results.get(2).isBroken(), "404 link should be broken");
+        Assert.assertEquals(results.get(3).status(), 200, "HEAD-refusing link should be retried with GET");
+        Assert.assertTrue(results.get(4).isBroken(), "Redirect loop should be reported as broken");
+    }
+
+    @Test(description = "Verify duplicate links are requested only once")
+    public void testDuplicateLinksCheckedOnce() {
+        LinkChecker.check(List.of(baseUrl + "/counted", baseUrl + "/counted#top", baseUrl + "/counted"));
+        LinkChecker.check(List.of(baseUrl + "/counted"));
+        Assert.assertEquals(countedHits.get(), 1, "Duplicate link should be served from the cache");
+    }
+
+    @Test(description = "Verify requests to one host stay within the per-host limit")
+    public void testPerHostConcurrencyLimit() {
+        List<String> links = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            links.add(baseUrl + "/slow?page=" + i);
+        }
+        List<LinkChecker.LinkResult> results = LinkChecker.check(links);
+
+        Assert.assertTrue(results.stream().noneMatch(LinkChecker.LinkResult::isBroken), "Slow links should be healthy");
+        log.info("Max concurrent requests to one host: {}", slowMaxInFlight.get());
+        Assert.assertTrue(slowMaxInFlight.get() <= ConfigReader.getLinkCheckPerHostLimit(),
+                "Concurrent requests to one host should not exceed link.check.per.host");
+        Assert.assertTrue(slowMaxInFlight.get() > 1, "Links should be checked concurrently");
+    }
+}
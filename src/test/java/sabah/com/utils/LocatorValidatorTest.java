@@ -0,0 +1,51 @@
+package sabah.com.utils;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.InvalidSelectorException;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+public class LocatorValidatorTest {
+
+    @DataProvider
+    public Object[][] validCss() {
+        return new Object[][]{
+                {"input:checked"}, {"button:disabled"}, {"a:hover"}, {"p:focus-within"}, {"div:where(.x)"},
+                {"div::before"}, {"li:first-child"}, {"p::first-line"}, {"li:nth-child(2n+1)"}, {"div:has(> a)"},
+                {"a[href='/x:first']"}, {"a[title=\"a, b\"]"}, {"nav.menu > ul li + li ~ li"}, {"a.b, c.d"}
+        };
+    }
+
+    @DataProvider
+    public Object[][] invalidCss() {
+        return new Object[][]{
+                {"li:first"}, {"li:eq(1)"}, {"tr:even"}, {"a:contains(x)"}, {"p:containsOwn(x)"},
+                {"p:matches(\\d+)"}, {"p:matchesOwn(x)"}, {"div:visible"}, {"div["}, {"a)"}, {"div:not(.x"},
+                {"a[href='x]"}, {"div >"}, {", a"}, {"a,,b"}, {" "}
+        };
+    }
+
+    @Test(dataProvider = "validCss")
+    public void acceptsBrowserCss(String selector) {
+        LocatorValidator.requireValid(By.cssSelector(selector));
+    }
+
+    @Test(dataProvider = "invalidCss", expectedExceptions = InvalidSelectorException.class)
+    public void rejectsNonStandardOrMalformedCss(String selector) {
+        LocatorValidator.requireValid(By.cssSelector(selector));
+    }
+
+    @Test
+    public void staticEngineEvaluatorOnlyForSelectorsJsoupSupports() {
+        Assert.assertNotNull(LocatorValidator.getCssEvaluator(By.cssSelector("li:first-child")));
+        Assert.assertNull(LocatorValidator.getCssEvaluator(By.cssSelector("a:hover")));
+        Assert.assertNull(LocatorValidator.getCssEvaluator(By.xpath("//a")));
+    }
+
+    @Test
+    public void validatesXpath() {
+        LocatorValidator.requireValid(By.xpath("//nav[@class='menu']//a[contains(., 'x')]"));
+        Assert.assertThrows(InvalidSelectorException.class, () -> LocatorValidator.requireValid(By.xpath("//a[")));
+    }
+}
@@ -0,0 +1,83 @@
+package sabah.com.utils;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Next to SiteArchive and LocalSite because both are exercised through package-private methods
+public class SiteArchiveTest {
+
+    @Test
+    public void archiveRoundTripsEveryResponse() throws IOException {
+        String longKey = "/search?q=" + "x".repeat(70_000);
+        Map<String, SiteArchive.Response> responses = new LinkedHashMap<>();
+        responses.put("/", new SiteArchive.Response(200, "text/html; charset=utf-8", true, new byte[]{1, 2, 3}));
+        responses.put("/empty", new SiteArchive.Response(204, "", false, new byte[0]));
+        responses.put("/ğüşİ.png", new SiteArchive.Response(200, "image/png", false, new byte[200_000]));
+        responses.put(longKey, new SiteArchive.Response(404, "text/plain", false, "missing".getBytes(StandardCharsets.UTF_8)));
+
+        Path file = Files.createTempDirectory("site-archive").resolve("test.archive");
+        SiteArchive.write(file, responses);
+        SiteArchive archive = SiteArchive.open(file);
+
+        Assert.assertEquals(archive.size(), responses.size());
+        for (Map.Entry<String, SiteArchive.Response> entry : responses.entrySet()) {
+            String key = entry.getKey();
+            SiteArchive.Response expected = entry.getValue();
+            Assert.assertTrue(archive.contains(key), key.length() > 100 ? "long key" : key);
+            Assert.assertEquals(archive.getStatus(key), expected.status());
+            Assert.assertEquals(archive.getContentType(key), expected.contentType());
+            Assert.assertEquals(archive.isGzip(key), expected.gzip());
+            Assert.assertEquals(archive.getLength(key), expected.body().length);
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            archive.writeBody(key, body);
+            Assert.assertEquals(body.toByteArray(), expected.body());
+        }
+    }
+
+    @Test
+    public void rewritesOriginToRootRelativeAndOtherHostsToExt() {
+        String html = "<a href=\"https://www.sabah.com.tr/gundem\">x</a>"
+                + "<script src=\"https://cdn.example.com/app.js?v=1\"></script>";
+        Assert.assertEquals(LocalSite.rewriteUrls(html, "www.sabah.com.tr"),
+                "<a href=\"/gundem\">x</a><script src=\"/_ext/cdn.example.com/app.js?v=1\"></script>");
+    }
+
+    @Test
+    public void rewritesProtocolRelativeUrls() {
+        String html = "<img src=\"//img.example.com/a.jpg\"><link href='//www.sabah.com.tr/s.css'>"
+                + "<div style=\"background:url(//img.example.com/b.png)\">";
+        Assert.assertEquals(LocalSite.rewriteUrls(html, "www.sabah.com.tr"),
+                "<img src=\"/_ext/img.example.com/a.jpg\"><link href='/s.css'>"
+                        + "<div style=\"background:url(/_ext/img.example.com/b.png)\">");
+    }
+
+    @Test
+    public void rewritesJsonEscapedUrls() {
+        String json = "{\"self\":\"https:\\/\\/www.sabah.com.tr\\/api\",\"img\":\"https:\\/\\/img.example.com\\/a.jpg\"}";
+        Assert.assertEquals(LocalSite.rewriteUrls(json, "www.sabah.com.tr"),
+                "{\"self\":\"\\/api\",\"img\":\"\\/_ext\\/img.example.com\\/a.jpg\"}");
+    }
+
+    @Test
+    public void leavesTextWithoutUrlsAlone() {
+        String script = "var a = 1; // comment with example.com\nvar b = \"http status\";";
+        Assert.assertEquals(LocalSite.rewriteUrls(script, "www.sabah.com.tr"), script);
+    }
+
+    @Test
+    public void readsDeclaredCharset() {
+        Assert.assertEquals(LocalSite.charsetOf("text/html; charset=ISO-8859-9"), Charset.forName("ISO-8859-9"));
+        Assert.assertEquals(LocalSite.charsetOf("text/html; Charset=\"windows-1254\""), Charset.forName("windows-1254"));
+        Assert.assertEquals(LocalSite.charsetOf("text/html"), StandardCharsets.UTF_8);
+        Assert.assertEquals(LocalSite.charsetOf("text/html; charset=bogus-9"), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,65 @@
+package sabah.com.utils;
+
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.Point;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WrapsDriver;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Proxy;
+
+public class ViewportMatrixTest {
+
+    // A driver without DevTools whose window only remembers its position and size
+    private static final class FakeWindow {
+        Point position = new Point(10, 20);
+        Dimension size = new Dimension(1920, 1080);
+    }
+
+    private static WebDriver fakeDriver(FakeWindow state) {
+        WebDriver.Window window = proxy(WebDriver.Window.class, (name, args) -> switch (name) {
+            case "getPosition" -> state.position;
+            case "getSize" -> state.size;
+            case "setPosition" -> state.position = (Point) args[0];
+            case "setSize" -> state.size = (Dimension) args[0];
+            default -> null;
+        });
+        WebDriver.Options options = proxy(WebDriver.Options.class, (name, args) -> "window".equals(name) ? window : null);
+        return proxy(WebDriver.class, (name, args) -> "manage".equals(name) ? options : null);
+    }
+
+    private interface Handler {
+        Object handle(String method, Object[] args);
+    }
+
+    private static <T> T proxy(Class<T> type, Handler handler) {
+        Object instance = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (self, method, args) ->
+                switch (method.getName()) {
+                    case "hashCode" -> System.identityHashCode(self);
+                    case "equals" -> self == args[0];
+                    case "toString" -> type.getSimpleName();
+                    default -> handler.handle(method.getName(), args);
+                });
+        return type.cast(instance);
+    }
+
+    @Test
+    public void clearThroughRawDriverRestoresWindowResizedThroughDecoratedOne() {
+        FakeWindow state = new FakeWindow();
+        WebDriver raw = fakeDriver(state);
+        WebDriver decorated = new EventFiringDecorator<>(new WebDriverListener() {
+        }).decorate(raw);
+        Assert.assertTrue(decorated instanceof WrapsDriver, "the pool hands tests a wrapping driver");
+
+        ViewportMatrix.emulate(decorated, new Viewport("mobile", 390, 844, 3, true));
+        Assert.assertEquals(state.size, new Dimension(390, 844));
+
+        state.position = new Point(0, 0);
+        ViewportMatrix.clear(raw);
+        Assert.assertEquals(state.size, new Dimension(1920, 1080));
+        Assert.assertEquals(state.position, new Point(10, 20));
+    }
+}
@@ -0,0 +1,101 @@
+package sabah.com.utils;
+
+import org.HdrHistogram.Histogram;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+public class WaitHistoryTest {
+    private static final Duration DEFAULT = Duration.ofSeconds(10);
+
+    private static Histogram samples(long millis, int count) {
+        Histogram histogram = new Histogram(300_000, 2);
+        histogram.recordValueWithCount(millis, count);
+        return histogram;
+    }
+
+    @Test
+    public void defaultTimeoutUntilMinSamples() {
+        Assert.assertEquals(WaitHistory.adaptiveTimeout(null, DEFAULT, 20, 3, 500, 15000), DEFAULT);
+        Assert.assertEquals(WaitHistory.adaptiveTimeout(samples(400, 19), DEFAULT, 20, 3, 500, 15000), DEFAULT);
+    }
+
+    @Test
+    public void p99TimesFactor() {
+        Histogram histogram = samples(400, 99);
+        histogram.recordValue(1000);
+        Duration timeout = WaitHistory.adaptiveTimeout(histogram, DEFAULT, 20, 3, 500, 15000);
+        // 2 significant digits: p99 of 400 ms lands within 1% of 400
+        Assert.assertTrue(timeout.toMillis() >= 1200 && timeout.toMillis() <= 1212, timeout.toString());
+    }
+
+    @Test
+    public void clampedToFloorAndCeiling() {
+        Assert.assertEquals(WaitHistory.adaptiveTimeout(samples(20, 50), DEFAULT, 20, 3, 500, 15000), Duration.ofMillis(500));
+        Assert.assertEquals(WaitHistory.adaptiveTimeout(samples(9000, 50), DEFAULT, 20, 3, 500, 15000), Duration.ofMillis(15000));
+    }
+
+    @Test
+    public void timeoutsRaiseTheTimeout() {
+        // The element got slower than the 1200 ms timeout; two timed-out waits are recorded at 1200
+        Histogram histogram = samples(400, 98);
+        histogram.recordValueWithCount(1200, 2);
+        Duration timeout = WaitHistory.adaptiveTimeout(histogram, DEFAULT, 20, 3, 500, 15000);
+        Assert.assertTrue(timeout.toMillis() >= 3600 && timeout.toMillis() <= 3636, timeout.toString());
+
+        histogram.recordValueWithCount(3600, 2);
+        Assert.assertTrue(WaitHistory.adaptiveTimeout(histogram, DEFAULT, 20, 3, 500, 15000).toMillis() > timeout.toMillis());
+        histogram.recordValueWithCount(15000, 2);
+        Assert.assertEquals(WaitHistory.adaptiveTimeout(histogram, DEFAULT, 20, 3, 500, 15000), Duration.ofMillis(15000));
+    }
+
+    @Test
+    public void windowDropsOldestRuns() throws IOException {
+        Path file = Files.createTempDirectory("wait-history").resolve("history.properties");
+        WaitHistory.merge(file, Map.of("visible|a", samples(5000, 50)), 2);
+        WaitHistory.merge(file, Map.of("visible|a", samples(300, 5), "pageLoad", samples(2000, 1)), 2);
+        WaitHistory.merge(file, Map.of("visible|a", samples(300, 7)), 2);
+
+        Map<String, Histogram> loaded = WaitHistory.load(file);
+        Assert.assertEquals(loaded.get("visible|a").getTotalCount(), 12);
+        Assert.assertEquals(loaded.get("visible|a").getMaxValue(), 300, 300 * 0.01);
+        Assert.assertEquals(WaitHistory.loadRuns(file).get("visible|a").size(), 2);
+        Assert.assertEquals(loaded.get("pageLoad").getTotalCount(), 1, "keys without new runs keep theirs");
+    }
+
+    @Test
+    public void mergeAddsToSamplesOnDisk() throws IOException {
+        Path file = Files.createTempDirectory("wait-history").resolve("history.properties");
+        WaitHistory.merge(file, Map.of("visible|a", samples(300, 5)), 20);
+        WaitHistory.merge(file, Map.of("visible|a", samples(300, 7), "pageLoad", samples(2000, 1)), 20);
+
+        Map<String, Histogram> loaded = WaitHistory.load(file);
+        Assert.assertEquals(loaded.get("visible|a").getTotalCount(), 12);
+        Assert.assertEquals(loaded.get("pageLoad").getTotalCount(), 1);
+    }
+
+    @Test
+    public void concurrentMergesKeepEverySample() throws IOException {
+        Path file = Files.createTempDirectory("wait-history").resolve("history.properties");
+        List<CompletableFuture<Integer>> writers = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            writers.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    return WaitHistory.merge(file, Map.of("present|b", samples(100, 10)), 20);
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            }));
+        }
+        writers.forEach(CompletableFuture::join);
+        Assert.assertEquals(WaitHistory.load(file).get("present|b").getTotalCount(), 80);
+    }
+}